@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 1C-Soft LLC.
+ * Copyright (c) 2018, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -26,9 +26,12 @@ import static org.eclipse.jdt.ui.JavaElementLabels.T_TYPE_PARAMETERS;
 import java.text.MessageFormat;
 import java.util.EnumSet;
 
+import org.eclipse.handly.examples.adapter.JavaModelAdapter;
 import org.eclipse.handly.internal.examples.adapter.ui.Activator;
 import org.eclipse.handly.internal.examples.adapter.ui.JavaEditorUtility;
+import org.eclipse.handly.model.adapter.DefaultContentAdapter;
 import org.eclipse.handly.ui.EditorOpener;
+import org.eclipse.handly.ui.callhierarchy.CallHierarchyCache;
 import org.eclipse.handly.ui.callhierarchy.CallHierarchyKind;
 import org.eclipse.handly.ui.callhierarchy.CallHierarchyLabelProvider;
 import org.eclipse.handly.ui.callhierarchy.CallHierarchyViewManager;
@@ -71,6 +74,15 @@ public final class JavaCallHierarchyView
         return getPartName() + " (Handly Adapter Example)";
     }
 
+    @Override
+    public void dispose()
+    {
+        CallHierarchyCache cache = getHierarchyCache();
+        if (cache != null)
+            JavaModelAdapter.removeElementChangeListener(cache);
+        super.dispose();
+    }
+
     @Override
     public boolean isPossibleInputElement(Object element)
     {
@@ -96,6 +108,15 @@ public final class JavaCallHierarchyView
         return roots;
     }
 
+    @Override
+    protected CallHierarchyCache createHierarchyCache()
+    {
+        CallHierarchyCache cache = new CallHierarchyCache(
+            DefaultContentAdapter.INSTANCE);
+        JavaModelAdapter.addElementChangeListener(cache);
+        return cache;
+    }
+
     @Override
     protected String computeContentDescription()
     {
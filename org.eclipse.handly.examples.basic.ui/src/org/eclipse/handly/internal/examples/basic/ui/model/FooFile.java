@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2020 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -15,6 +15,7 @@ package org.eclipse.handly.internal.examples.basic.ui.model;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.core.resources.IFile;
@@ -30,8 +31,13 @@ import org.eclipse.handly.examples.basic.ui.model.IFooFile;
 import org.eclipse.handly.examples.basic.ui.model.IFooVar;
 import org.eclipse.handly.internal.examples.basic.ui.Activator;
 import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.ISourceConstruct;
+import org.eclipse.handly.model.impl.support.IElementImplSupport;
 import org.eclipse.handly.model.impl.support.SourceElementBody;
 import org.eclipse.handly.model.impl.support.WorkspaceSourceFile;
+import org.eclipse.handly.snapshot.ISnapshot;
+import org.eclipse.handly.xtext.ui.editor.ReparsedRegion;
+import org.eclipse.handly.xtext.ui.editor.XtextWorkingCopyCallback;
 import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.XtextResource;
@@ -122,6 +128,15 @@ public class FooFile
             {
                 FooFileStructureBuilder builder = new FooFileStructureBuilder(
                     newElements, resource.getResourceServiceProvider());
+                ReparsedRegion reparsedRegion = context.get(
+                    XtextWorkingCopyCallback.REPARSED_REGION);
+                if (reparsedRegion != null)
+                {
+                    Map<IElement, SourceElementBody> oldBodies =
+                        getReusableBodies(reparsedRegion.getBaseSnapshot());
+                    if (oldBodies != null)
+                        builder.setReusableBodies(oldBodies, reparsedRegion);
+                }
                 builder.buildStructure(this, body, (Unit)root, monitor);
             }
         }
@@ -129,6 +144,39 @@ public class FooFile
         newElements.put(this, body);
     }
 
+    /**
+     * Returns the currently cached bodies of the children of this working
+     * copy, provided that they are based on the given snapshot.
+     *
+     * @param baseSnapshot never <code>null</code>
+     * @return the bodies of the children keyed by child,
+     *  or <code>null</code> if they cannot be reused
+     */
+    private Map<IElement, SourceElementBody> getReusableBodies(
+        ISnapshot baseSnapshot)
+    {
+        if (!isWorkingCopy_())
+            return null;
+        Object body = peekAtBody_();
+        if (!(body instanceof SourceElementBody))
+            return null;
+        SourceElementBody thisBody = (SourceElementBody)body;
+        ISnapshot snapshot = thisBody.getSnapshot();
+        if (snapshot == null || !snapshot.isEqualTo(baseSnapshot))
+            return null;
+        ISourceConstruct[] children = thisBody.getChildren();
+        Map<IElement, SourceElementBody> result = new HashMap<>(
+            children.length * 4 / 3 + 1);
+        for (ISourceConstruct child : children)
+        {
+            Object childBody = ((IElementImplSupport)child).peekAtBody_();
+            if (!(childBody instanceof SourceElementBody))
+                return null; // e.g. evicted from the cache
+            result.put(child, (SourceElementBody)childBody);
+        }
+        return result;
+    }
+
     /**
      * Returns a new <code>XtextResource</code> loaded from the given contents.
      * The resource is created in a new <code>ResourceSet</code> obtained from
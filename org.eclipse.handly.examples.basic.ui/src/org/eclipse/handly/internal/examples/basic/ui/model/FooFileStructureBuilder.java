@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2020 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -27,18 +27,28 @@ import org.eclipse.handly.model.impl.support.Body;
 import org.eclipse.handly.model.impl.support.SourceElementBody;
 import org.eclipse.handly.model.impl.support.StructureHelper;
 import org.eclipse.handly.util.TextRange;
+import org.eclipse.handly.xtext.ui.editor.ReparsedRegion;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
 import org.eclipse.xtext.resource.ILocationInFileProvider;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.util.ITextRegion;
 
 /**
- * Builds the inner structure for a {@link FooFile}.
+ * Builds the inner structure for a {@link FooFile}. If {@link
+ * #setReusableBodies(Map, ReparsedRegion) reusable bodies} are specified,
+ * the bodies of the constructs that lie outside the reparsed region are
+ * reused, with their text ranges shifted as appropriate, rather than computed
+ * anew. Whether a construct lies outside the reparsed region is determined
+ * from the node model, so no location computation is done for such constructs.
  */
 class FooFileStructureBuilder
 {
     private final Map<IElement, Object> newElements;
     private final ILocationInFileProvider locationProvider;
     private final StructureHelper helper = new StructureHelper();
+    private Map<IElement, SourceElementBody> oldBodies;
+    private ReparsedRegion reparsedRegion;
 
     /**
      * Constructs a new Foo file structure builder.
@@ -60,6 +70,27 @@ class FooFileStructureBuilder
             ILocationInFileProvider.class);
     }
 
+    /**
+     * Specifies the previously built bodies that may be reused for the
+     * constructs that lie outside the given reparsed region.
+     *
+     * @param oldBodies the previously built bodies of the top-level constructs
+     *  (not <code>null</code>). The bodies must be based on the region's
+     *  {@link ReparsedRegion#getBaseSnapshot() base snapshot}
+     * @param reparsedRegion the text change that has been applied to the AST
+     *  since the old bodies were built (not <code>null</code>)
+     */
+    void setReusableBodies(Map<IElement, SourceElementBody> oldBodies,
+        ReparsedRegion reparsedRegion)
+    {
+        if (oldBodies == null)
+            throw new IllegalArgumentException();
+        if (reparsedRegion == null)
+            throw new IllegalArgumentException();
+        this.oldBodies = oldBodies;
+        this.reparsedRegion = reparsedRegion;
+    }
+
     /**
      * Builds the structure for the given {@link FooFile} based on
      * its {@link Unit AST}.
@@ -98,9 +129,13 @@ class FooFileStructureBuilder
 
         FooVar handle = new FooVar(parent, var.getName());
         helper.resolveDuplicates(handle);
-        SourceElementBody body = new SourceElementBody();
-        body.setFullRange(getFullRange(var));
-        body.setIdentifyingRange(getIdentifyingRange(var));
+        SourceElementBody body = reuseBody(handle, var);
+        if (body == null)
+        {
+            body = new SourceElementBody();
+            body.setFullRange(getFullRange(var));
+            body.setIdentifyingRange(getIdentifyingRange(var));
+        }
         newElements.put(handle, body);
         helper.pushChild(parentBody, handle);
     }
@@ -113,15 +148,76 @@ class FooFileStructureBuilder
         int arity = def.getParams().size();
         FooDef handle = new FooDef(parent, def.getName(), arity);
         helper.resolveDuplicates(handle);
-        SourceElementBody body = new SourceElementBody();
-        body.setFullRange(getFullRange(def));
-        body.setIdentifyingRange(getIdentifyingRange(def));
-        body.set(FooDef.PARAMETER_NAMES, def.getParams().toArray(
-            new String[arity]));
+        SourceElementBody body = reuseBody(handle, def);
+        if (body == null)
+        {
+            body = new SourceElementBody();
+            body.setFullRange(getFullRange(def));
+            body.setIdentifyingRange(getIdentifyingRange(def));
+            body.set(FooDef.PARAMETER_NAMES, def.getParams().toArray(
+                new String[arity]));
+        }
+        else if (body.get(FooDef.PARAMETER_NAMES) == null)
+        {
+            body.set(FooDef.PARAMETER_NAMES, oldBodies.get(handle).get(
+                FooDef.PARAMETER_NAMES));
+        }
         newElements.put(handle, body);
         helper.pushChild(parentBody, handle);
     }
 
+    /*
+     * Returns the old body for the given element if the element's construct
+     * lies before the reparsed region, a copy of the old body with the text
+     * ranges shifted if the construct lies after the reparsed region, or null
+     * if there is no old body for the element or the construct might have been
+     * affected by the change. The text of a construct that lies entirely
+     * outside the reparsed region has not changed, so its body can be reused
+     * provided that the old body describes the same construct, i.e. that
+     * the construct's node still encloses the corresponding range.
+     */
+    private SourceElementBody reuseBody(IElement handle, EObject eObject)
+    {
+        if (oldBodies == null)
+            return null;
+        SourceElementBody oldBody = oldBodies.get(handle);
+        if (oldBody == null)
+            return null;
+        TextRange oldRange = oldBody.getFullRange();
+        if (oldRange == null)
+            return null;
+        INode node = NodeModelUtils.getNode(eObject);
+        if (node == null)
+            return null;
+        int offset = node.getTotalOffset();
+        int endOffset = node.getTotalEndOffset();
+        int delta;
+        if (endOffset < reparsedRegion.getOffset())
+            delta = 0;
+        else if (offset > reparsedRegion.getOffset()
+            + reparsedRegion.getNewLength())
+            delta = reparsedRegion.getDelta();
+        else
+            return null; // overlaps or adjoins the reparsed region
+        TextRange fullRange = shift(oldRange, delta);
+        if (fullRange.getOffset() < offset
+            || fullRange.getEndOffset() > endOffset)
+            return null; // the old body is for another construct
+        if (delta == 0)
+            return oldBody;
+        SourceElementBody body = new SourceElementBody();
+        body.setFullRange(fullRange);
+        body.setIdentifyingRange(shift(oldBody.getIdentifyingRange(), delta));
+        return body;
+    }
+
+    private static TextRange shift(TextRange range, int delta)
+    {
+        if (range == null || delta == 0)
+            return range;
+        return new TextRange(range.getOffset() + delta, range.getLength());
+    }
+
     private TextRange getFullRange(EObject eObject)
     {
         return toTextRange(locationProvider.getFullTextRegion(eObject));
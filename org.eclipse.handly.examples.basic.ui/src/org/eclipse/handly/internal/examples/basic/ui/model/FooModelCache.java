@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,6 +13,7 @@
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.handly.examples.basic.ui.model.IFooFile;
 import org.eclipse.handly.examples.basic.ui.model.IFooModel;
@@ -21,6 +22,7 @@ import org.eclipse.handly.model.IElement;
 import org.eclipse.handly.model.impl.support.Body;
 import org.eclipse.handly.model.impl.support.ElementCache;
 import org.eclipse.handly.model.impl.support.IBodyCache;
+import org.eclipse.handly.model.impl.support.NonOpenableElementCache;
 
 /**
  * The Foo Model cache.
@@ -38,15 +40,15 @@ class FooModelCache
     private Object modelBody; // Foo model element's body
     private HashMap<IElement, Object> projectCache; // cache of open Foo projects
     private ElementCache fileCache; // cache of open Foo files
-    private HashMap<IElement, Object> childrenCache; // cache of children of open Foo files
+    private NonOpenableElementCache childrenCache; // cache of children of open Foo files
 
     public FooModelCache()
     {
         // set the size of the caches as a function of the maximum amount of memory available
         projectCache = new HashMap<>(DEFAULT_PROJECT_SIZE);
         fileCache = new ElementCache((int)(DEFAULT_FILE_SIZE * memoryRatio));
-        childrenCache = new HashMap<>((int)(DEFAULT_CHILDREN_SIZE
-            * memoryRatio));
+        childrenCache = new NonOpenableElementCache(
+            (int)(DEFAULT_CHILDREN_SIZE * memoryRatio));
     }
 
     @Override
@@ -72,7 +74,7 @@ class FooModelCache
         else if (element instanceof IFooFile)
             return fileCache.peek(element);
         else
-            return childrenCache.get(element);
+            return childrenCache.peek(element);
     }
 
     @Override
@@ -91,6 +93,27 @@ class FooModelCache
             childrenCache.put(element, body);
     }
 
+    @Override
+    public void putAll(Map<? extends IElement, Object> elementBodies)
+    {
+        IElement file = null;
+        for (IElement element : elementBodies.keySet())
+        {
+            if (element instanceof IFooFile)
+            {
+                file = element;
+                break;
+            }
+        }
+        if (file == null)
+        {
+            IBodyCache.super.putAll(elementBodies);
+            return;
+        }
+        fileCache.put(file, elementBodies.get(file));
+        childrenCache.putChildren(file, elementBodies);
+    }
+
     @Override
     public void remove(IElement element)
     {
@@ -103,7 +126,11 @@ class FooModelCache
                 element);
         }
         else if (element instanceof IFooFile)
+        {
             fileCache.remove(element);
+            childrenCache.resetMaxSize((int)(DEFAULT_CHILDREN_SIZE
+                * memoryRatio), element);
+        }
         else
             childrenCache.remove(element);
     }
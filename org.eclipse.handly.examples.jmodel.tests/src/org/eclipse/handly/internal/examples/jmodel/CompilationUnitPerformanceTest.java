@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.jmodel;
+
+import static org.eclipse.handly.context.Contexts.EMPTY_CONTEXT;
+import static org.eclipse.handly.context.Contexts.of;
+import static org.eclipse.handly.context.Contexts.with;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.handly.context.IContext;
+import org.eclipse.handly.examples.jmodel.ICompilationUnit;
+import org.eclipse.handly.examples.jmodel.IJavaProject;
+import org.eclipse.handly.examples.jmodel.IPackageFragment;
+import org.eclipse.handly.examples.jmodel.JavaModelCore;
+import org.eclipse.handly.junit.NoJobsWorkspaceTestCase;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+
+/**
+ * <code>CompilationUnit</code> tests that can be useful for assessing
+ * the performance of building the structure of compilation units that are
+ * not working copies. Compares the structure-only parse mode with the full
+ * structural parse that was used before.
+ */
+public class CompilationUnitPerformanceTest
+    extends NoJobsWorkspaceTestCase
+{
+    private static final int UNIT_COUNT = 200;
+    private static final int METHOD_COUNT = 50;
+
+    private ICompilationUnit[] cus;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        IProject project = setUpProject("Test008");
+        IFolder folder = project.getFolder("src").getFolder("perf");
+        folder.create(true, true, null);
+        for (int i = 0; i < UNIT_COUNT; i++)
+        {
+            folder.getFile("C" + i + ".java").create(new ByteArrayInputStream(
+                generateSource(i).getBytes(StandardCharsets.UTF_8)), true,
+                null);
+        }
+        IJavaProject javaProject = JavaModelCore.create(project);
+        IPackageFragment pkg = javaProject.getPackageFragmentRoot(
+            project.getFolder("src")).getPackageFragment("perf");
+        cus = pkg.getCompilationUnits();
+        assertEquals(UNIT_COUNT, cus.length);
+    }
+
+    public void testStructureOnlyParse() throws Exception
+    {
+        for (ICompilationUnit cu : cus)
+            buildStructure((CompilationUnit)cu, true);
+    }
+
+    public void testFullStructuralParse() throws Exception
+    {
+        for (ICompilationUnit cu : cus)
+            buildStructure((CompilationUnit)cu, false);
+    }
+
+    public void testSameStructure() throws Exception
+    {
+        for (ICompilationUnit cu : cus)
+        {
+            Map<IElement, Object> expected = buildStructure(
+                (CompilationUnit)cu, false);
+            Map<IElement, Object> actual = buildStructure((CompilationUnit)cu,
+                true);
+            assertEquals(expected.keySet(), actual.keySet());
+            for (Map.Entry<IElement, Object> entry : expected.entrySet())
+            {
+                SourceElementBody expectedBody =
+                    (SourceElementBody)entry.getValue();
+                SourceElementBody actualBody = (SourceElementBody)actual.get(
+                    entry.getKey());
+                assertEquals(expectedBody.getFullRange(),
+                    actualBody.getFullRange());
+                assertEquals(expectedBody.getIdentifyingRange(),
+                    actualBody.getIdentifyingRange());
+            }
+        }
+    }
+
+    private static Map<IElement, Object> buildStructure(CompilationUnit cu,
+        boolean structureOnly) throws Exception
+    {
+        String name = cu.getElementName(); // C<index>.java
+        String source = generateSource(Integer.parseInt(name.substring(1,
+            name.indexOf('.'))));
+        Map<IElement, Object> newElements = new HashMap<>();
+        IContext context = of(CompilationUnit.NEW_ELEMENTS, newElements);
+        if (!structureOnly)
+        {
+            // what non-working copies used to be built from
+            context = with(of(CompilationUnit.SOURCE_AST, cu.createAst(source,
+                EMPTY_CONTEXT, null)), context);
+        }
+        cu.buildSourceStructure_(with(of(CompilationUnit.SOURCE_CONTENTS,
+            source), context), null);
+        return newElements;
+    }
+
+    private static String generateSource(int index)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package perf;\n\nimport java.util.*;\n\n");
+        sb.append("public class C").append(index).append("\n{\n");
+        sb.append("    private final List<String> list = new ArrayList<>();\n");
+        for (int i = 0; i < METHOD_COUNT; i++)
+        {
+            sb.append("\n    public int m").append(i).append(
+                "(int x, String s)\n    {\n");
+            sb.append("        int result = 0;\n");
+            sb.append("        for (int i = 0; i < x; i++)\n        {\n");
+            sb.append("            if (s.length() > i)\n");
+            sb.append("                result += s.charAt(i) * ").append(
+                i).append(";\n");
+            sb.append("            else\n");
+            sb.append("                list.add(String.valueOf(i));\n");
+            sb.append("        }\n");
+            sb.append("        return result;\n    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2022 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,13 +12,17 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.jmodel;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.handly.examples.jmodel.ICompilationUnit;
 import org.eclipse.handly.examples.jmodel.IImportContainer;
 import org.eclipse.handly.examples.jmodel.IImportDeclaration;
+import org.eclipse.handly.examples.jmodel.IJavaElement;
 import org.eclipse.handly.examples.jmodel.IJavaProject;
+import org.eclipse.handly.examples.jmodel.IJavaSourceConstruct;
 import org.eclipse.handly.examples.jmodel.IPackageDeclaration;
 import org.eclipse.handly.examples.jmodel.IPackageFragment;
 import org.eclipse.handly.examples.jmodel.IPackageFragmentRoot;
@@ -26,6 +30,8 @@ import org.eclipse.handly.examples.jmodel.IType;
 import org.eclipse.handly.examples.jmodel.JavaModelCore;
 import org.eclipse.handly.junit.NoJobsWorkspaceTestCase;
 import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.ISourceElementInfo;
+import org.eclipse.jdt.core.Flags;
 
 /**
  * <code>CompilationUnit</code> tests.
@@ -149,4 +155,108 @@ public class CompilationUnitTest
         ICompilationUnit cu = pkg.getCompilationUnit("123.java");
         assertFalse(cu.exists()); // invalid CU name
     }
+
+    public void test006() throws Exception
+    {
+        ICompilationUnit[] cus = pkg.getCompilationUnits();
+        JavaModelCore.open(cus, null);
+        for (ICompilationUnit cu : cus)
+        {
+            assertNotNull(((CompilationUnit)cu).peekAtBody_());
+        }
+        ICompilationUnit cu = pkg.getCompilationUnit("CU02.java");
+        assertEquals(4, cu.getChildren().length);
+        assertTrue(cu.getType("Y").exists());
+
+        JavaModelCore.open(new ICompilationUnit[] { pkg.getCompilationUnit(
+            "123.java") }, null); // skipped
+    }
+
+    public void test007() throws Exception
+    {
+        ICompilationUnit cu = pkg.getCompilationUnit("CU02.java");
+        IImportDeclaration[] imports = cu.getImports();
+        ISourceElementInfo[] infos = new ISourceElementInfo[imports.length];
+        for (int i = 0; i < imports.length; i++)
+            infos[i] = imports[i].getSourceElementInfo();
+        ((CompilationUnit)cu).close_();
+
+        JavaModelManager.INSTANCE.setLazyImports(true);
+        try
+        {
+            assertTrue(Arrays.equals(imports, cu.getImports()));
+            assertNotNull(((CompilationUnitBody)((CompilationUnit)cu)
+                .findBody_()).getBodyTable());
+            for (int i = 0; i < imports.length; i++)
+            {
+                assertTrue(imports[i].exists());
+                assertEquals(0, imports[i].getChildren().length);
+                ISourceElementInfo info = imports[i].getSourceElementInfo();
+                assertEquals(infos[i].getFullRange(), info.getFullRange());
+                assertEquals(infos[i].getIdentifyingRange(),
+                    info.getIdentifyingRange());
+                assertTrue(infos[i].getSnapshot().isEqualTo(
+                    info.getSnapshot()));
+            }
+            assertFalse(cu.getImport("b.B").exists());
+        }
+        finally
+        {
+            JavaModelManager.INSTANCE.setLazyImports(false);
+        }
+    }
+
+    public void test008() throws Exception
+    {
+        ICompilationUnit cu = pkg.getCompilationUnit("CU02.java");
+        List<IJavaElement> elements = new ArrayList<>();
+        addDescendants(cu, elements);
+        List<ISourceElementInfo> infos = new ArrayList<>();
+        List<IJavaElement[]> children = new ArrayList<>();
+        for (IJavaElement element : elements)
+        {
+            infos.add(((IJavaSourceConstruct)element).getSourceElementInfo());
+            children.add(element.getChildren());
+        }
+        ((CompilationUnit)cu).close_();
+
+        JavaModelManager.INSTANCE.setCompactStructure(true);
+        try
+        {
+            CompilationUnitBody body =
+                (CompilationUnitBody)((CompilationUnit)cu).getBody_();
+            assertEquals(elements.size(), body.getBodyTable().size());
+            for (int i = 0; i < elements.size(); i++)
+            {
+                IJavaSourceConstruct element =
+                    (IJavaSourceConstruct)elements.get(i);
+                assertTrue(element.exists());
+                assertTrue(Arrays.equals(children.get(i),
+                    element.getChildren()));
+                ISourceElementInfo info = element.getSourceElementInfo();
+                assertEquals(infos.get(i).getFullRange(), info.getFullRange());
+                assertEquals(infos.get(i).getIdentifyingRange(),
+                    info.getIdentifyingRange());
+                assertTrue(infos.get(i).getSnapshot().isEqualTo(
+                    info.getSnapshot()));
+            }
+            assertFalse(Flags.isInterface(cu.getType("X").getFlags()));
+            assertTrue(Flags.isInterface(cu.getType("Y").getFlags()));
+            assertFalse(cu.getType("Z").exists());
+        }
+        finally
+        {
+            JavaModelManager.INSTANCE.setCompactStructure(false);
+        }
+    }
+
+    private static void addDescendants(IJavaElement element,
+        List<IJavaElement> result) throws Exception
+    {
+        for (IJavaElement child : element.getChildren())
+        {
+            result.add(child);
+            addDescendants(child, result);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.jmodel;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.handly.examples.jmodel.ICompilationUnit;
+import org.eclipse.handly.examples.jmodel.IJavaProject;
+import org.eclipse.handly.examples.jmodel.IPackageFragment;
+import org.eclipse.handly.examples.jmodel.IType;
+import org.eclipse.handly.examples.jmodel.JavaModelCore;
+import org.eclipse.handly.junit.NoJobsWorkspaceTestCase;
+
+/**
+ * <code>JavaModelCache</code> tests that can be useful for assessing
+ * the memory retained by the Java model when opening a number of large
+ * compilation units, whose children do not fit in the children cache.
+ */
+public class JavaModelCachePerformanceTest
+    extends NoJobsWorkspaceTestCase
+{
+    private static final int FIELD_COUNT = 5000;
+
+    private ICompilationUnit[] cus;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        // open enough units for their children to fill the cache twice
+        int unitCount = 2 * new JavaModelCache().getDefaultChildrenCacheSize()
+            / FIELD_COUNT + 2;
+        IProject project = setUpProject("Test008");
+        IFolder folder = project.getFolder("src").getFolder("perf");
+        folder.create(true, true, null);
+        for (int i = 0; i < unitCount; i++)
+        {
+            folder.getFile("C" + i + ".java").create(new ByteArrayInputStream(
+                generateSource(i).getBytes(StandardCharsets.UTF_8)), true,
+                null);
+        }
+        IJavaProject javaProject = JavaModelCore.create(project);
+        IPackageFragment pkg = javaProject.getPackageFragmentRoot(
+            project.getFolder("src")).getPackageFragment("perf");
+        cus = pkg.getCompilationUnits();
+        assertEquals(unitCount, cus.length);
+    }
+
+    public void testOpenLargeUnits() throws Exception
+    {
+        for (ICompilationUnit cu : cus)
+        {
+            IType type = cu.getTypes()[0];
+            assertEquals(FIELD_COUNT, type.getFields().length);
+        }
+        // the least recently used units have been closed to bound the cache
+        assertNull(((CompilationUnit)cus[0]).peekAtBody_());
+        assertNotNull(((CompilationUnit)cus[cus.length - 1]).peekAtBody_());
+    }
+
+    public void testReopenEvictedUnits() throws Exception
+    {
+        for (ICompilationUnit cu : cus)
+            cu.getTypes();
+        // the evicted units are transparently reopened on access
+        for (ICompilationUnit cu : cus)
+        {
+            IType type = cu.getTypes()[0];
+            assertTrue(type.getField("f0").exists());
+            assertTrue(type.getField("f" + (FIELD_COUNT - 1)).exists());
+        }
+    }
+
+    private static String generateSource(int index)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package perf;\n\n");
+        sb.append("public class C").append(index).append("\n{\n");
+        for (int i = 0; i < FIELD_COUNT; i++)
+            sb.append("    int f").append(i).append(";\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2022 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -14,6 +14,7 @@ package org.eclipse.handly.internal.examples.jmodel;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.handly.examples.jmodel.IJavaModel;
 import org.eclipse.handly.examples.jmodel.IJavaProject;
@@ -200,4 +201,23 @@ public class JavaModelNotificationTest
         );
         //@formatter:on
     }
+
+    public void test009() throws Exception
+    {
+        // delete both projects with an intermediate notification
+        JavaModelManager.INSTANCE.runCoalescingDeltas(monitor ->
+        {
+            simpleProject.delete(true, null);
+            ResourcesPlugin.getWorkspace().checkpoint(false);
+            javaProject.delete(true, null);
+        }, null, null);
+
+        // resource deltas are dropped from the accumulated delta
+        //@formatter:off
+        listener.assertDelta(
+            "Java Model[*]: {CHILDREN | CONTENT}\n" +
+            "  Test001[-]: {}"
+        );
+        //@formatter:on
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2022 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -19,9 +19,11 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.handly.examples.jmodel.IJavaProject;
+import org.eclipse.handly.examples.jmodel.IPackageFragment;
 import org.eclipse.handly.examples.jmodel.IPackageFragmentRoot;
 import org.eclipse.handly.examples.jmodel.JavaModelCore;
 import org.eclipse.handly.junit.NoJobsWorkspaceTestCase;
+import org.eclipse.jdt.core.JavaCore;
 
 /**
  * <code>JavaProject</code> tests.
@@ -242,4 +244,31 @@ public class JavaProjectTest
         assertTrue(Arrays.asList(nonJavaResources).contains(binFolder));
         assertTrue(Arrays.asList(nonJavaResources).contains(otherFolder));
     }
+
+    public void test005() throws Exception
+    {
+        IProject project = setUpProject("Test003");
+        JavaProject javaProject = (JavaProject)JavaModelCore.create(project);
+        IFolder srcFolder = project.getFolder("src");
+        srcFolder.getFolder("_").create(true, true, null);
+        IPackageFragment pkg = javaProject.getPackageFragmentRoot(
+            srcFolder).getPackageFragment("_");
+        String sourceLevel = javaProject.getOption(JavaCore.COMPILER_SOURCE,
+            true);
+        assertEquals(JavaCore.getOption(JavaCore.COMPILER_SOURCE),
+            sourceLevel);
+        assertFalse(pkg.exists()); // '_' is a keyword since Java 9
+
+        // the cached options must be discarded on project options change
+        org.eclipse.jdt.core.IJavaProject jdtProject = JavaCore.create(
+            project);
+        jdtProject.setOption(JavaCore.COMPILER_SOURCE, "1.8");
+        jdtProject.setOption(JavaCore.COMPILER_COMPLIANCE, "1.8");
+
+        assertEquals("1.8", javaProject.getOption(JavaCore.COMPILER_SOURCE,
+            true));
+        assertEquals("1.8", javaProject.getOptions(true).get(
+            JavaCore.COMPILER_COMPLIANCE));
+        assertTrue(pkg.exists());
+    }
 }
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.jmodel;
+
+import org.eclipse.handly.examples.jmodel.ICompilationUnit;
+import org.eclipse.handly.examples.jmodel.IJavaElement;
+import org.eclipse.handly.examples.jmodel.IJavaProject;
+import org.eclipse.handly.examples.jmodel.IType;
+import org.eclipse.handly.examples.jmodel.JavaModelCore;
+
+import junit.framework.TestCase;
+
+/**
+ * Memento tests that can be useful for assessing restore throughput.
+ */
+public class MementoPerformanceTest
+    extends TestCase
+{
+    private String[] mementos;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        // 100 000 mementos of source elements in 500 compilation units
+        mementos = new String[100000];
+        for (int i = 0; i < mementos.length; i++)
+        {
+            IJavaProject project = JavaModelCore.getJavaModel().getJavaProject(
+                "P" + i % 5);
+            ICompilationUnit cu = project.getPackageFragmentRoot(
+                project.getProject().getFolder("src")).getPackageFragment("p"
+                    + i % 10).getCompilationUnit("X" + i % 500 + ".java");
+            IType type = cu.getType("X" + i % 500);
+            IJavaElement element;
+            switch (i % 4)
+            {
+            case 0:
+                element = type;
+                break;
+            case 1:
+                element = type.getField("f" + i);
+                break;
+            case 2:
+                element = type.getMethod("m" + i, new String[] { "I",
+                    "QString;" });
+                break;
+            default:
+                element = type.getType("Y" + i);
+            }
+            mementos[i] = element.getHandleIdentifier();
+        }
+    }
+
+    public void testRestorePerformance()
+    {
+        for (String memento : mementos)
+        {
+            IJavaElement element = JavaModelCore.create(memento);
+            assertNotNull(element);
+            assertEquals(memento, element.getHandleIdentifier());
+        }
+    }
+
+    public void testUncachedRestorePerformance()
+    {
+        JavaModel model = (JavaModel)JavaModelCore.getJavaModel();
+        for (String memento : mementos)
+        {
+            IJavaElement element = model.getHandleFromMemento(
+                new MementoTokenizer(memento));
+            assertNotNull(element);
+            assertEquals(memento, element.getHandleIdentifier());
+        }
+    }
+
+    public void testSameElements()
+    {
+        JavaModel model = (JavaModel)JavaModelCore.getJavaModel();
+        for (String memento : mementos)
+        {
+            assertEquals(model.getHandleFromMemento(new MementoTokenizer(
+                memento)), JavaModelCore.create(memento));
+        }
+    }
+}
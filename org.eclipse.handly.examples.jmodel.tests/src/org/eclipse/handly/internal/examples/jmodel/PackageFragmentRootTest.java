@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2022 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,11 +13,14 @@
 package org.eclipse.handly.internal.examples.jmodel;
 
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.handly.examples.jmodel.IJavaProject;
 import org.eclipse.handly.examples.jmodel.IPackageFragment;
 import org.eclipse.handly.examples.jmodel.IPackageFragmentRoot;
@@ -268,4 +271,47 @@ public class PackageFragmentRootTest
         assertTrue(Arrays.asList(nonJavaResources).contains(osgiinfFolder));
         assertTrue(Arrays.asList(nonJavaResources).contains(aFile));
     }
+
+    public void test005() throws Exception
+    {
+        IFolder rootFolder = (IFolder)root.getResource();
+        for (String name : new String[] { "d", "a", "c", "b" })
+        {
+            IFolder folder = rootFolder.getFolder(name);
+            folder.create(true, true, null);
+            for (int i = 9; i >= 0; i--)
+            {
+                IFolder subfolder = folder.getFolder(name + i);
+                subfolder.create(true, true, null);
+                subfolder.getFolder("x").create(true, true, null);
+            }
+        }
+        List<IPackageFragment> expected = new ArrayList<>();
+        addPackageFragments(rootFolder, "", expected);
+
+        // parallel traversal
+        assertEquals(expected, Arrays.asList(root.getPackageFragments()));
+
+        // serial traversal (the calling thread owns a scheduling rule)
+        ((PackageFragmentRoot)root).close_();
+        IPackageFragment[][] packageFragments = new IPackageFragment[1][];
+        rootFolder.getWorkspace().run(monitor -> packageFragments[0] =
+            root.getPackageFragments(), rootFolder, 0, null);
+        assertEquals(expected, Arrays.asList(packageFragments[0]));
+    }
+
+    private void addPackageFragments(IFolder folder, String packageName,
+        List<IPackageFragment> result) throws Exception
+    {
+        result.add(root.getPackageFragment(packageName));
+        for (IResource member : folder.members())
+        {
+            if (member instanceof IFolder && !member.getName().contains("-"))
+            {
+                addPackageFragments((IFolder)member, packageName.isEmpty()
+                    ? member.getName() : packageName + '.' + member.getName(),
+                    result);
+            }
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2022 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -14,6 +14,8 @@ package org.eclipse.handly.internal.examples.jmodel;
 
 import java.io.ByteArrayInputStream;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -24,6 +26,7 @@ import org.eclipse.handly.examples.jmodel.IPackageFragment;
 import org.eclipse.handly.examples.jmodel.IPackageFragmentRoot;
 import org.eclipse.handly.examples.jmodel.JavaModelCore;
 import org.eclipse.handly.junit.NoJobsWorkspaceTestCase;
+import org.eclipse.handly.model.impl.support.Body;
 
 /**
  * <code>PackageFragment</code> tests.
@@ -212,4 +215,50 @@ public class PackageFragmentTest
         assertTrue(Arrays.asList(nonJavaResources).contains(osgiinfFolder));
         assertTrue(Arrays.asList(nonJavaResources).contains(aFile));
     }
+
+    public void test005() throws Exception
+    {
+        ICompilationUnit[] compilationUnits = fooPkg.getCompilationUnits();
+        assertEquals(1, compilationUnits.length);
+        Body body = (Body)((PackageFragment)fooPkg).findBody_();
+        assertNotNull(body);
+
+        // add and delete many files in one operation
+        IFolder fooFolder = (IFolder)fooPkg.getResource();
+        Set<ICompilationUnit> expected = new HashSet<>();
+        fooFolder.getWorkspace().run(monitor ->
+        {
+            for (int i = 0; i < 100; i++)
+            {
+                IFile file = fooFolder.getFile("B" + i + ".java");
+                file.create(new ByteArrayInputStream(new byte[0]), true,
+                    null);
+                if (i % 2 == 0)
+                    file.delete(true, null);
+                else
+                    expected.add(fooPkg.getCompilationUnit(file.getName()));
+            }
+            aCU.getResource().delete(true, null);
+        }, null);
+
+        // the package body is patched rather than closed
+        assertSame(body, ((PackageFragment)fooPkg).findBody_());
+        compilationUnits = fooPkg.getCompilationUnits();
+        assertEquals(expected, new HashSet<>(Arrays.asList(compilationUnits)));
+
+        // delete some of the added files
+        IFile b1File = fooFolder.getFile("B1.java");
+        IFile b3File = fooFolder.getFile("B3.java");
+        fooFolder.getWorkspace().run(monitor ->
+        {
+            b1File.delete(true, null);
+            b3File.delete(true, null);
+        }, null);
+        expected.remove(fooPkg.getCompilationUnit(b1File.getName()));
+        expected.remove(fooPkg.getCompilationUnit(b3File.getName()));
+
+        assertSame(body, ((PackageFragment)fooPkg).findBody_());
+        compilationUnits = fooPkg.getCompilationUnits();
+        assertEquals(expected, new HashSet<>(Arrays.asList(compilationUnits)));
+    }
 }
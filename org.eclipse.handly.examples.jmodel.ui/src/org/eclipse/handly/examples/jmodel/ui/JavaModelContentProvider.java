@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2016 Codasip Ltd and others.
+ * Copyright (c) 2015, 2026 Codasip Ltd and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -88,8 +88,10 @@ public class JavaModelContentProvider
         {
             try
             {
-                Object[] children =
+                ICompilationUnit[] children =
                     ((IPackageFragment)parentElement).getCompilationUnits();
+                // the viewer is going to ask each unit for its children
+                JavaModelCore.open(children, null);
                 Object[] nonJavaResources =
                     ((IPackageFragment)parentElement).getNonJavaResources();
                 return concat(children, nonJavaResources);
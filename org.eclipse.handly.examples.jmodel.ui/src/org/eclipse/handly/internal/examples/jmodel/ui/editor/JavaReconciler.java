@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2016 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -15,7 +15,9 @@ package org.eclipse.handly.internal.examples.jmodel.ui.editor;
 import org.eclipse.handly.examples.jmodel.JavaModelCore;
 import org.eclipse.handly.model.IElementChangeListener;
 import org.eclipse.handly.ui.IWorkingCopyManager;
+import org.eclipse.handly.ui.text.reconciler.AdaptiveReconcilingDelay;
 import org.eclipse.handly.ui.text.reconciler.EditorWorkingCopyReconciler;
+import org.eclipse.handly.ui.text.reconciler.ReconcileScheduler;
 import org.eclipse.ui.texteditor.ITextEditor;
 
 /**
@@ -33,6 +35,8 @@ public class JavaReconciler
     public JavaReconciler(ITextEditor editor, IWorkingCopyManager manager)
     {
         super(editor, manager);
+        setAdaptiveDelay(new AdaptiveReconcilingDelay());
+        setScheduler(ReconcileScheduler.getDefault());
     }
 
     @Override
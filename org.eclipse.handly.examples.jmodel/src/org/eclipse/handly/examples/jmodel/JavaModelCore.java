@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2018 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,14 +12,18 @@
  *******************************************************************************/
 package org.eclipse.handly.examples.jmodel;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.handly.internal.examples.jmodel.CompilationUnit;
 import org.eclipse.handly.internal.examples.jmodel.JavaModelManager;
-import org.eclipse.handly.internal.examples.jmodel.MementoTokenizer;
 
 /**
  * Facade to the Java model.
@@ -50,7 +54,7 @@ public class JavaModelCore
         if (handleIdentifier == null)
             return null;
         return JavaModelManager.INSTANCE.getModel().getHandleFromMemento(
-            new MementoTokenizer(handleIdentifier));
+            handleIdentifier);
     }
 
     /**
@@ -168,6 +172,32 @@ public class JavaModelCore
         return pkg.getCompilationUnit(file.getName());
     }
 
+    /**
+     * Opens the given compilation units in a batch. Units that are already
+     * open or are working copies are left as is. The settings for parsing
+     * the units are computed only once per project rather than once per unit.
+     * Units that cannot be opened are skipped without reporting an error;
+     * the error will be reported when such a unit is accessed directly.
+     * <p>
+     * This method is intended for prefetching the structure of many units,
+     * e.g. when expanding a package in a viewer.
+     * </p>
+     *
+     * @param units the compilation units to open (not <code>null</code>)
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if progress reporting is not desired
+     */
+    public static void open(ICompilationUnit[] units, IProgressMonitor monitor)
+    {
+        List<CompilationUnit> result = new ArrayList<>(units.length);
+        for (ICompilationUnit unit : units)
+        {
+            if (unit instanceof CompilationUnit)
+                result.add((CompilationUnit)unit);
+        }
+        CompilationUnit.open(result.toArray(new CompilationUnit[0]), monitor);
+    }
+
     private JavaModelCore()
     {
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2023 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -18,11 +18,16 @@ import static org.eclipse.handly.context.Contexts.with;
 import static org.eclipse.handly.model.Elements.BASE_SNAPSHOT;
 import static org.eclipse.handly.model.Elements.FORCE_RECONCILING;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.handly.buffer.IBuffer;
 import org.eclipse.handly.context.Context;
 import org.eclipse.handly.context.IContext;
@@ -33,11 +38,13 @@ import org.eclipse.handly.examples.jmodel.IJavaSourceConstruct;
 import org.eclipse.handly.examples.jmodel.IJavaSourceElement;
 import org.eclipse.handly.examples.jmodel.IPackageDeclaration;
 import org.eclipse.handly.examples.jmodel.IType;
+import org.eclipse.handly.examples.jmodel.JavaModelCore;
+import org.eclipse.handly.model.IElement;
 import org.eclipse.handly.model.impl.support.ISourceFileImplSupport;
+import org.eclipse.handly.model.impl.support.SourceBodyTable;
 import org.eclipse.handly.snapshot.ISnapshot;
 import org.eclipse.handly.util.Property;
 import org.eclipse.jdt.core.IProblemRequestor;
-import org.eclipse.jdt.core.JavaConventions;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.compiler.IProblem;
@@ -231,13 +238,8 @@ public class CompilationUnit
 
     IStatus validateCompilationUnitName()
     {
-        JavaProject javaProject = getAncestorOfType(JavaProject.class);
-        String sourceLevel = javaProject.getOption(JavaCore.COMPILER_SOURCE,
-            true);
-        String complianceLevel = javaProject.getOption(
-            JavaCore.COMPILER_COMPLIANCE, true);
-        return JavaConventions.validateCompilationUnitName(getElementName(),
-            sourceLevel, complianceLevel);
+        return getAncestorOfType(
+            JavaProject.class).validateCompilationUnitName(getElementName());
     }
 
     static final Property<Integer> AST_LEVEL = Property.get(
@@ -260,6 +262,44 @@ public class CompilationUnit
     static final Property<Boolean> IGNORE_METHOD_BODIES = Property.get(
         CompilationUnit.class.getName() + ".ignoreMethodBodies", //$NON-NLS-1$
         Boolean.class).withDefault(false);
+    static final Property<Map<String, String>> COMPILER_OPTIONS =
+        new Property<Map<String, String>>(CompilationUnit.class.getName()
+            + ".compilerOptions") //$NON-NLS-1$
+        {
+        };
+
+    /**
+     * Opens the given compilation units that are neither open nor working
+     * copies. The compiler options are computed once per project and are
+     * shared by all of the units being opened. Units that cannot be opened
+     * are skipped; they will report the failure when accessed directly.
+     *
+     * @param units not <code>null</code>
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if progress reporting is not desired
+     */
+    public static void open(CompilationUnit[] units, IProgressMonitor monitor)
+    {
+        SubMonitor subMonitor = SubMonitor.convert(monitor, units.length);
+        Map<IProject, Map<String, String>> compilerOptions = new HashMap<>();
+        for (CompilationUnit unit : units)
+        {
+            SubMonitor unitMonitor = subMonitor.split(1);
+            if (unit.isWorkingCopy_() || unit.peekAtBody_() != null)
+                continue;
+            Map<String, String> options = compilerOptions.computeIfAbsent(
+                unit.getResource().getProject(),
+                CompilationUnit::getCompilerOptions);
+            try
+            {
+                unit.open_(of(COMPILER_OPTIONS, options), unitMonitor);
+            }
+            catch (CoreException e)
+            {
+                // skip the unit
+            }
+        }
+    }
 
     org.eclipse.jdt.core.dom.CompilationUnit createAst(String source,
         IContext context, IProgressMonitor monitor) throws CoreException
@@ -267,7 +307,16 @@ public class CompilationUnit
         ASTParser parser = ASTParser.newParser(context.getOrDefault(AST_LEVEL));
         parser.setSource(source.toCharArray());
         parser.setUnitName(getPath().toString());
-        parser.setProject(JavaCore.create(getResource().getProject()));
+        if (context.getOrDefault(RESOLVE_BINDINGS))
+            parser.setProject(JavaCore.create(getResource().getProject()));
+        else
+        {
+            // no need for a name environment; just set the project options
+            Map<String, String> options = context.get(COMPILER_OPTIONS);
+            if (options == null)
+                options = getCompilerOptions(getResource().getProject());
+            parser.setCompilerOptions(options);
+        }
         if (context.containsKey(FOCAL_POSITION))
             parser.setFocalPosition(context.get(FOCAL_POSITION));
         else if (context.getOrDefault(STRUCTURAL_AST))
@@ -281,18 +330,59 @@ public class CompilationUnit
             monitor);
     }
 
+    /*
+     * Creates an AST that contains just what the structure builder needs,
+     * i.e. declarations with their names and ranges. Method bodies are not
+     * parsed, so there is no need for a focal position; there is neither
+     * statements recovery nor binding resolution. This is only suitable
+     * for source files that are not working copies, since no problems
+     * are reported for them.
+     */
+    org.eclipse.jdt.core.dom.CompilationUnit createStructureOnlyAst(
+        String source, IContext context, IProgressMonitor monitor)
+        throws CoreException
+    {
+        return createAst(source, with(of(IGNORE_METHOD_BODIES, true), of(
+            STRUCTURAL_AST, false), of(STATEMENTS_RECOVERY, false), of(
+                BINDINGS_RECOVERY, false), of(RESOLVE_BINDINGS, false),
+            context), monitor);
+    }
+
+    /*
+     * Returns the compiler options for the given project, exactly as
+     * ASTParser#setProject(IJavaProject) would set them.
+     */
+    private static Map<String, String> getCompilerOptions(IProject project)
+    {
+        return ((JavaProject)JavaModelCore.create(
+            project)).getCompilerOptions();
+    }
+
     @Override
     public void buildSourceStructure_(IContext context,
         IProgressMonitor monitor) throws CoreException
     {
         org.eclipse.jdt.core.dom.CompilationUnit cu =
             (org.eclipse.jdt.core.dom.CompilationUnit)context.get(SOURCE_AST);
-        if (cu == null)
-            cu = createAst(context.get(SOURCE_CONTENTS), context, monitor);
+        if (cu == null) // not a working copy
+            cu = createStructureOnlyAst(context.get(SOURCE_CONTENTS), context,
+                monitor);
 
+        Map<IElement, Object> newElements = context.get(NEW_ELEMENTS);
         CompilatonUnitStructureBuilder builder =
-            new CompilatonUnitStructureBuilder(context.get(NEW_ELEMENTS));
+            new CompilatonUnitStructureBuilder(newElements);
         builder.buildStructure(this, cu);
+
+        CompilationUnitBody body = (CompilationUnitBody)newElements.get(this);
+        if (JavaModelManager.INSTANCE.isCompactStructure())
+            body.setBodyTable(SourceBodyTable.compact(this, newElements));
+        else if (JavaModelManager.INSTANCE.isLazyImports())
+        {
+            IElement importContainer = getImportContainer();
+            if (newElements.containsKey(importContainer))
+                body.setBodyTable(SourceBodyTable.compact(importContainer,
+                    newElements));
+        }
     }
 
     @Override
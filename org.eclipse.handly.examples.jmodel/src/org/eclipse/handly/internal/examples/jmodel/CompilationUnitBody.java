@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.jmodel;
+
+import org.eclipse.handly.model.impl.support.SourceBodyTable;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+
+/**
+ * The body of a compilation unit. If the compilation unit was built in the
+ * compact structure mode, the body keeps a table of the bodies of source
+ * constructs contained in the compilation unit; in the lazy imports mode,
+ * the table holds only the bodies of import declarations. Such bodies
+ * are not stored in the body cache, but are materialized from the table
+ * on demand.
+ *
+ * @see JavaModelManager#setCompactStructure(boolean)
+ * @see JavaModelManager#setLazyImports(boolean)
+ */
+class CompilationUnitBody
+    extends SourceElementBody
+{
+    private volatile SourceBodyTable bodyTable;
+
+    /**
+     * Returns the table of the bodies of source constructs contained in
+     * the compilation unit.
+     *
+     * @return the body table, or <code>null</code> if the compilation unit
+     *  was built in neither the compact structure mode nor the lazy imports
+     *  mode
+     */
+    SourceBodyTable getBodyTable()
+    {
+        return bodyTable;
+    }
+
+    /**
+     * Sets the table of the bodies of source constructs contained in
+     * the compilation unit.
+     *
+     * @param bodyTable may be <code>null</code>
+     */
+    void setBodyTable(SourceBodyTable bodyTable)
+    {
+        this.bodyTable = bodyTable;
+    }
+}
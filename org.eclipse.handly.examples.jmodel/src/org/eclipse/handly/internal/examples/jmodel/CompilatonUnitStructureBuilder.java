@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -68,7 +68,7 @@ class CompilatonUnitStructureBuilder
     void buildStructure(CompilationUnit handle,
         org.eclipse.jdt.core.dom.CompilationUnit cu)
     {
-        SourceElementBody body = new SourceElementBody();
+        CompilationUnitBody body = new CompilationUnitBody();
 
         org.eclipse.jdt.core.dom.PackageDeclaration pkg = cu.getPackage();
         if (pkg != null)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -128,6 +128,7 @@ class DeltaProcessingState
         else
         {
             javaProject.resetRawClasspath();
+            javaProject.resetOptions();
             IClasspathEntry[] classpath;
             IPath outputLocation;
             try
@@ -147,6 +148,16 @@ class DeltaProcessingState
         }
     }
 
+    /**
+     * Discards the cached options of the given project and returns whether
+     * the options that affect the validation of Java names (i.e., the source
+     * and compliance levels) have changed.
+     */
+    boolean optionsChanged(JavaProject javaProject)
+    {
+        return javaProject.resetOptionsAndCheckLevels();
+    }
+
     IJavaElement createElement(IResource resource, boolean oldState)
     {
         if (resource instanceof IProject)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2019 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,7 +13,12 @@
 package org.eclipse.handly.internal.examples.jmodel;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -38,6 +43,7 @@ import org.eclipse.handly.model.impl.IElementImplExtension;
 import org.eclipse.handly.model.impl.support.Body;
 import org.eclipse.handly.model.impl.support.IElementDeltaBuilder;
 import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.JavaCore;
 
 /**
  * This class is used by the <code>JavaModelManager</code> to convert
@@ -49,6 +55,13 @@ class DeltaProcessor
 {
     private final DeltaProcessingState state;
     private final IElementDeltaBuilder builder;
+    /*
+     * Pending changes to the children of package fragment root and package
+     * fragment bodies: for each child, whether it is to be added (true)
+     * or removed (false). The last change to a child wins.
+     */
+    private final Map<Body, Map<IElement, Boolean>> bodyPatches =
+        new IdentityHashMap<>();
 
     DeltaProcessor(DeltaProcessingState state)
     {
@@ -67,6 +80,44 @@ class DeltaProcessor
         return builder.getDelta();
     }
 
+    /**
+     * Applies the pending changes to the children of package fragment root
+     * and package fragment bodies. Must be called after the resource delta
+     * has been processed.
+     * <p>
+     * Rather than adding or removing each child as it is encountered,
+     * which would take time proportional to the number of children every
+     * time, the changes are accumulated and applied at once for each body,
+     * so that the bodies can be kept open even through heavy file churn.
+     * </p>
+     */
+    void patchBodies()
+    {
+        for (Map.Entry<Body, Map<IElement, Boolean>> entry :
+            bodyPatches.entrySet())
+        {
+            Body body = entry.getKey();
+            Map<IElement, Boolean> patch = entry.getValue();
+            IElement[] children = body.getChildren();
+            List<IElement> newChildren = new ArrayList<>(children.length
+                + patch.size());
+            for (IElement child : children)
+            {
+                Boolean added = patch.remove(child);
+                if (added == null || added)
+                    newChildren.add(child);
+            }
+            for (Map.Entry<IElement, Boolean> change : patch.entrySet())
+            {
+                if (change.getValue())
+                    newChildren.add(change.getKey());
+            }
+            body.setChildren(newChildren.toArray((IElement[])Array.newInstance(
+                children.getClass().getComponentType(), newChildren.size())));
+        }
+        bodyPatches.clear();
+    }
+
     @Override
     public boolean visit(IResourceDelta delta) throws CoreException
     {
@@ -233,6 +284,7 @@ class DeltaProcessor
                 addToModel(javaProject); // in case the project was removed then added then changed
 
             checkClasspathChange(delta);
+            checkOptionsChange(delta);
 
             return true;
         }
@@ -269,6 +321,33 @@ class DeltaProcessor
         }
     }
 
+    private void checkOptionsChange(IResourceDelta projectDelta)
+    {
+        IResourceDelta delta = projectDelta.findMember(new Path(
+            ".settings/" + JavaCore.PLUGIN_ID + ".prefs")); //$NON-NLS-1$ //$NON-NLS-2$
+        if (delta == null || delta.getResource().getType() != IResource.FILE)
+            return;
+
+        JavaProject javaProject = (JavaProject)JavaModelCore.create(
+            delta.getResource().getProject());
+        switch (delta.getKind())
+        {
+        case IResourceDelta.CHANGED:
+            int flags = delta.getFlags();
+            if ((flags & IResourceDelta.CONTENT) == 0)
+                break;
+            //$FALL-THROUGH$
+        case IResourceDelta.ADDED:
+        case IResourceDelta.REMOVED:
+            if (state.optionsChanged(javaProject))
+            {
+                // package and CU names need revalidation
+                builder.changed(javaProject, IJavaElementDelta.F_CONTENT);
+                close(javaProject);
+            }
+        }
+    }
+
     private boolean processFolder(IResourceDelta delta) throws CoreException
     {
         switch (delta.getKind())
@@ -437,6 +516,8 @@ class DeltaProcessor
                 addPackageFragmentRoot(parentBody,
                     (PackageFragmentRoot)element);
             }
+            else if (isPatchable(parentBody))
+                patchBody(parentBody, element, true);
             else
                 parentBody.addChild(element);
         }
@@ -515,13 +596,36 @@ class DeltaProcessor
     {
         Body parentBody = findBody(element.getParent());
         if (parentBody != null)
-            parentBody.removeChild(element);
+        {
+            if (isPatchable(parentBody))
+                patchBody(parentBody, element, false);
+            else
+                parentBody.removeChild(element);
+        }
         close(element);
         if (element instanceof IJavaProject)
             JavaModelManager.INSTANCE.removePerProjectInfo(
                 ((IJavaProject)element).getProject());
     }
 
+    private static boolean isPatchable(Body body)
+    {
+        return body instanceof PackageFragmentRootBody
+            || body instanceof PackageFragmentBody;
+    }
+
+    private void patchBody(Body body, IElement child, boolean add)
+    {
+        Map<IElement, Boolean> patch = bodyPatches.get(body);
+        if (patch == null)
+        {
+            patch = new LinkedHashMap<>();
+            bodyPatches.put(body, patch);
+        }
+        patch.remove(child); // keep the order of the last changes
+        patch.put(child, add);
+    }
+
     private void translateAddedDelta(IResourceDelta delta, IJavaElement element)
     {
         if ((delta.getFlags() & IResourceDelta.MOVED_FROM) == 0) // regular addition
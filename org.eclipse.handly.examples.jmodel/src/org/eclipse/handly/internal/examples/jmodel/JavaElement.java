@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 1C-Soft LLC and others.
+ * Copyright (c) 2017, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -70,7 +70,7 @@ public abstract class JavaElement
     @Override
     public final String getHandleMemento_()
     {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(64);
         getHandleMemento(sb);
         return sb.toString();
     }
@@ -90,10 +90,11 @@ public abstract class JavaElement
 
     protected final void escapeMementoName(StringBuilder sb, String name)
     {
-        for (int i = 0, length = name.length(); i < length; i++)
+        int length = name.length();
+        int start = 0;
+        for (int i = 0; i < length; i++)
         {
-            char character = name.charAt(i);
-            switch (character)
+            switch (name.charAt(i))
             {
             case JEM_ESCAPE:
             case JEM_JAVAPROJECT:
@@ -106,10 +107,13 @@ public abstract class JavaElement
             case JEM_TYPE:
             case JEM_FIELD:
             case JEM_METHOD:
+                sb.append(name, start, i);
                 sb.append(JEM_ESCAPE);
+                start = i;
             }
-            sb.append(character);
         }
+        // most names need no escaping and are appended in one go
+        sb.append(name, start, length);
     }
 
     /**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -89,6 +89,35 @@ public final class JavaElementDelta
         return (JavaElementDelta)findDelta_(element);
     }
 
+    /**
+     * Merges this delta with the given delta for the same element, in the same
+     * way as an {@link ElementDelta.Builder} would merge them.
+     *
+     * @param delta the delta to merge with (not <code>null</code>)
+     * @throws IllegalArgumentException if the given delta pertains to
+     *  a different element
+     */
+    void mergeWith(JavaElementDelta delta)
+    {
+        if (!getElement().equals(delta.getElement()))
+            throw new IllegalArgumentException();
+        mergeWith_(delta);
+    }
+
+    /**
+     * Drops the resource deltas and marker deltas from this delta tree,
+     * retaining the corresponding change flags. Resource deltas and marker
+     * deltas are only valid during the resource change notification they come
+     * from, and must be dropped from a delta that is to be fired later.
+     */
+    void dropResourceDeltas()
+    {
+        setResourceDeltas_(null);
+        setMarkerDeltas_(null);
+        for (JavaElementDelta child : getAffectedChildren())
+            child.dropResourceDeltas();
+    }
+
     @Override
     protected boolean toStringFlags_(StringBuilder builder, IContext context)
     {
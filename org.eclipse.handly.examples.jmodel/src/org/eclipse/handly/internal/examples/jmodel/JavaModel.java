@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -26,6 +26,7 @@ import org.eclipse.handly.examples.jmodel.IJavaModel;
 import org.eclipse.handly.examples.jmodel.IJavaProject;
 import org.eclipse.handly.model.IElementChangeListener;
 import org.eclipse.handly.model.impl.IModelImpl;
+import org.eclipse.handly.util.BoundedLruCache;
 
 /**
  * Implementation of {@link IJavaModel}. The Java model maintains a cache of
@@ -37,8 +38,20 @@ public class JavaModel
 {
     private static final IJavaProject[] NO_CHILDREN = new IJavaProject[0];
 
+    private static final int HANDLE_CACHE_SIZE = 1000;
+
     private final IWorkspace workspace;
 
+    /*
+     * Maps the resource part of recently restored mementos to the corresponding
+     * handles. Mementos restored together (e.g. persisted editor inputs or
+     * working sets) typically share a small number of such prefixes, and
+     * handles are immutable, so the handles can be reused instead of decoding
+     * the prefix again. Access is synchronized on the cache.
+     */
+    private final BoundedLruCache<String, JavaElement> handleCache =
+        new BoundedLruCache<>(HANDLE_CACHE_SIZE);
+
     /**
      * Constructs a new Java model on the given workspace.
      *
@@ -85,6 +98,41 @@ public class JavaModel
         return ((JavaModelBody)getBody_()).getNonJavaProjects(this);
     }
 
+    /**
+     * Creates a Java element handle from the given memento. The resource part
+     * of the memento (i.e. the part that identifies a project, a package
+     * fragment root, a package fragment, or a compilation unit) is decoded
+     * only once for a number of recently restored mementos.
+     *
+     * @param memento not <code>null</code>
+     * @return the created Java element handle, or <code>null</code>
+     *  if unable to create a Java element handle from the given memento
+     */
+    public JavaElement getHandleFromMemento(String memento)
+    {
+        int end = MementoTokenizer.indexOfSourceConstruct(memento);
+        String prefix = end == memento.length() ? memento : memento.substring(
+            0, end);
+        JavaElement element;
+        synchronized (handleCache)
+        {
+            element = handleCache.get(prefix);
+        }
+        if (element == null)
+        {
+            element = getHandleFromMemento(new MementoTokenizer(prefix));
+            if (element == null)
+                return null;
+            synchronized (handleCache)
+            {
+                handleCache.put(prefix, element);
+            }
+        }
+        if (end == memento.length())
+            return element;
+        return element.getHandleFromMemento(new MementoTokenizer(memento, end));
+    }
+
     @Override
     public IWorkspace getWorkspace()
     {
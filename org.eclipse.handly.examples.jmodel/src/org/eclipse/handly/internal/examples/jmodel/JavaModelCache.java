@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2018 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,6 +13,7 @@
 package org.eclipse.handly.internal.examples.jmodel;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.handly.examples.jmodel.ICompilationUnit;
 import org.eclipse.handly.examples.jmodel.IJavaModel;
@@ -23,6 +24,7 @@ import org.eclipse.handly.model.IElement;
 import org.eclipse.handly.model.impl.support.Body;
 import org.eclipse.handly.model.impl.support.ElementCache;
 import org.eclipse.handly.model.impl.support.IBodyCache;
+import org.eclipse.handly.model.impl.support.NonOpenableElementCache;
 
 /**
  * The Java model cache.
@@ -44,7 +46,7 @@ class JavaModelCache
     private ElementCache rootCache; // cache of open package fragment roots
     private ElementCache pkgCache; // cache of open package fragments
     private ElementCache fileCache; // cache of open Java files
-    private HashMap<IElement, Object> childrenCache; // cache of children of open Java files
+    private NonOpenableElementCache childrenCache; // cache of children of open Java files
 
     public JavaModelCache()
     {
@@ -53,8 +55,19 @@ class JavaModelCache
         rootCache = new ElementCache((int)(DEFAULT_ROOT_SIZE * memoryRatio));
         pkgCache = new ElementCache((int)(DEFAULT_PKG_SIZE * memoryRatio));
         fileCache = new ElementCache((int)(DEFAULT_FILE_SIZE * memoryRatio));
-        childrenCache = new HashMap<>((int)(DEFAULT_CHILDREN_SIZE
-            * memoryRatio));
+        childrenCache = new NonOpenableElementCache(
+            getDefaultChildrenCacheSize());
+    }
+
+    /**
+     * Returns the maximum number of children of Java files this cache holds
+     * unless a single Java file has more children.
+     *
+     * @return the default maximum size of the children cache
+     */
+    int getDefaultChildrenCacheSize()
+    {
+        return (int)(DEFAULT_CHILDREN_SIZE * memoryRatio);
     }
 
     @Override
@@ -88,7 +101,7 @@ class JavaModelCache
         else if (element instanceof ICompilationUnit)
             return fileCache.peek(element);
         else
-            return childrenCache.get(element);
+            return childrenCache.peek(element);
     }
 
     @Override
@@ -117,6 +130,27 @@ class JavaModelCache
             childrenCache.put(element, body);
     }
 
+    @Override
+    public void putAll(Map<? extends IElement, Object> elementBodies)
+    {
+        IElement file = null;
+        for (IElement element : elementBodies.keySet())
+        {
+            if (element instanceof ICompilationUnit)
+            {
+                file = element;
+                break;
+            }
+        }
+        if (file == null)
+        {
+            IBodyCache.super.putAll(elementBodies);
+            return;
+        }
+        fileCache.put(file, elementBodies.get(file));
+        childrenCache.putChildren(file, elementBodies);
+    }
+
     @Override
     public void remove(IElement element)
     {
@@ -141,7 +175,11 @@ class JavaModelCache
                 element);
         }
         else if (element instanceof ICompilationUnit)
+        {
             fileCache.remove(element);
+            childrenCache.resetMaxSize(getDefaultChildrenCacheSize(),
+                element);
+        }
         else
             childrenCache.remove(element);
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2019 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -14,8 +14,11 @@ package org.eclipse.handly.internal.examples.jmodel;
 
 import static org.eclipse.handly.context.Contexts.EMPTY_CONTEXT;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResourceChangeEvent;
@@ -23,9 +26,21 @@ import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.ICoreRunnable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.handly.context.Context;
 import org.eclipse.handly.context.IContext;
 import org.eclipse.handly.examples.jmodel.IJavaElement;
+import org.eclipse.handly.examples.jmodel.IJavaElementDelta;
+import org.eclipse.handly.examples.jmodel.JavaModelCore;
 import org.eclipse.handly.model.ElementDeltas;
 import org.eclipse.handly.model.IElementDelta;
 import org.eclipse.handly.model.IElementHandleFactory;
@@ -36,6 +51,7 @@ import org.eclipse.handly.model.impl.support.IModelManager;
 import org.eclipse.handly.model.impl.support.INotificationManager;
 import org.eclipse.handly.model.impl.support.NotificationManager;
 import org.eclipse.handly.util.SavedStateJob;
+import org.eclipse.jdt.core.JavaCore;
 
 /**
  * The manager for the Java model.
@@ -43,7 +59,8 @@ import org.eclipse.handly.util.SavedStateJob;
  * @threadsafe This class is intended to be thread-safe
  */
 public class JavaModelManager
-    implements IModelManager, IResourceChangeListener
+    implements IModelManager, IResourceChangeListener,
+    IPreferenceChangeListener
 {
     /**
      * The sole instance of the manager.
@@ -57,6 +74,17 @@ public class JavaModelManager
     private Context modelContext;
     private Map<IProject, PerProjectInfo> perProjectInfo =
         new HashMap<IProject, PerProjectInfo>(5); // NOTE: this object itself is used as a lock to synchronize creation/removal of per project info
+    private final Object deltaLock = new Object();
+    private final DeltaAccumulator pendingDelta =
+        new DeltaAccumulator(); // guarded by deltaLock
+    private final ThreadLocal<CoalescingScope> coalescingScope =
+        new ThreadLocal<>();
+    private volatile long coalescingDelay;
+    private volatile boolean lazyImports;
+    private volatile boolean compactStructure;
+    private final Job fireDeltaJob = new FireDeltaJob();
+    private final Object traversalPoolLock = new Object();
+    private ForkJoinPool traversalPool; // guarded by traversalPoolLock
 
     public void startup() throws Exception
     {
@@ -80,6 +108,7 @@ public class JavaModelManager
 
             workspace.addResourceChangeListener(this,
                 IResourceChangeEvent.POST_CHANGE);
+            getJavaCorePreferences().addPreferenceChangeListener(this);
 
             new SavedStateJob(Activator.PLUGIN_ID, this).schedule();
         }
@@ -92,6 +121,20 @@ public class JavaModelManager
 
     public void shutdown() throws Exception
     {
+        fireDeltaJob.cancel();
+        ForkJoinPool pool;
+        synchronized (traversalPoolLock)
+        {
+            pool = traversalPool;
+            traversalPool = null;
+        }
+        if (pool != null)
+            pool.shutdownNow();
+        synchronized (deltaLock)
+        {
+            pendingDelta.take();
+        }
+        getJavaCorePreferences().removePreferenceChangeListener(this);
         ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
         modelContext = null;
         deltaState = null;
@@ -114,14 +157,280 @@ public class JavaModelManager
         }
         finally
         {
+            deltaProcessor.patchBodies();
             deltaState.reset();
         }
         IElementDelta delta = deltaProcessor.getDelta();
         if (!ElementDeltas.isEmpty(delta))
+            deltaTranslated((JavaElementDelta)delta);
+    }
+
+    /**
+     * Sets the time window during which the Java element deltas translated
+     * from subsequent resource change events are accumulated, to be fired
+     * as a single merged delta when the window ends. A zero delay (the default)
+     * disables such coalescing, so that each resource change event results
+     * in a separate element change event fired during the resource change
+     * notification.
+     * <p>
+     * Note that, when the delay is positive, element change events are fired
+     * from a background job rather than during resource change notification.
+     * Since resource deltas and marker deltas are only valid during the
+     * notification they come from, delayed element deltas do not carry them:
+     * {@link IJavaElementDelta#getResourceDeltas() getResourceDeltas()} and
+     * {@link IJavaElementDelta#getMarkerDeltas() getMarkerDeltas()} return
+     * <code>null</code>, while the <code>F_CONTENT</code> and <code>F_MARKERS
+     * </code> change flags are still reported. Element change events that are
+     * not translated from resource deltas, such as working copy reconcile
+     * events, are never delayed.
+     * </p>
+     *
+     * @param delay the coalescing delay in milliseconds (non-negative)
+     */
+    public void setDeltaCoalescingDelay(long delay)
+    {
+        if (delay < 0)
+            throw new IllegalArgumentException();
+        coalescingDelay = delay;
+        if (delay == 0)
+            firePendingDelta();
+    }
+
+    /**
+     * Returns the time window during which the Java element deltas translated
+     * from subsequent resource change events are accumulated.
+     *
+     * @return the coalescing delay in milliseconds
+     * @see #setDeltaCoalescingDelay(long)
+     */
+    public long getDeltaCoalescingDelay()
+    {
+        return coalescingDelay;
+    }
+
+    /**
+     * Sets whether the import containers of compilation units should be built
+     * in the lazy imports mode. In this mode, the bodies of import declarations
+     * are not stored in the body cache, but are materialized from a compact
+     * table kept by the compilation unit's body only when they are asked for.
+     * This reduces the body cache footprint for compilation units with many
+     * imports at the cost of slower access to import declarations.
+     * <p>
+     * The mode applies to compilation units opened or reconciled after this
+     * method returns. It is disabled by default. The compact structure mode,
+     * if enabled, takes precedence, since it covers import declarations too.
+     * </p>
+     *
+     * @param lazyImports whether to enable the lazy imports mode
+     * @see #setCompactStructure(boolean)
+     */
+    public void setLazyImports(boolean lazyImports)
+    {
+        this.lazyImports = lazyImports;
+    }
+
+    /**
+     * Returns whether the import containers of compilation units are built
+     * in the lazy imports mode.
+     *
+     * @return <code>true</code> if the lazy imports mode is enabled,
+     *  and <code>false</code> otherwise
+     * @see #setLazyImports(boolean)
+     */
+    public boolean isLazyImports()
+    {
+        return lazyImports;
+    }
+
+    /**
+     * Sets whether compilation units should be built in the compact structure
+     * mode. In this mode, the bodies of source constructs contained in
+     * a compilation unit are not stored in the body cache, but are kept in
+     * a compact table by the compilation unit's body and are materialized
+     * from that table only when they are asked for. This considerably reduces
+     * the memory retained for large compilation units at the cost of slower
+     * access to the bodies of their source constructs.
+     * <p>
+     * The mode applies to compilation units opened or reconciled after this
+     * method returns. It is disabled by default.
+     * </p>
+     *
+     * @param compactStructure whether to enable the compact structure mode
+     * @see CompilationUnitBody
+     */
+    public void setCompactStructure(boolean compactStructure)
+    {
+        this.compactStructure = compactStructure;
+    }
+
+    /**
+     * Returns whether compilation units are built in the compact structure
+     * mode.
+     *
+     * @return <code>true</code> if the compact structure mode is enabled,
+     *  and <code>false</code> otherwise
+     * @see #setCompactStructure(boolean)
+     */
+    public boolean isCompactStructure()
+    {
+        return compactStructure;
+    }
+
+    /**
+     * Returns the pool used for parallel traversal of the folders of package
+     * fragment roots. The pool is created on first use and is shut down when
+     * the manager shuts down. Traversal is dominated by file system access
+     * rather than by computation, hence the lower bound on the parallelism.
+     *
+     * @return the traversal pool (never <code>null</code>)
+     */
+    ForkJoinPool getTraversalPool()
+    {
+        synchronized (traversalPoolLock)
+        {
+            if (traversalPool == null)
+                traversalPool = new ForkJoinPool(Math.max(4,
+                    Runtime.getRuntime().availableProcessors()));
+            return traversalPool;
+        }
+    }
+
+    /**
+     * Runs the given action as an atomic workspace operation, accumulating
+     * the Java element deltas translated from resource change events until
+     * the operation ends. The accumulated deltas are then fired as a single
+     * merged delta, unless the operation is nested in another such operation
+     * running in the same thread, in which case they are fired when the outermost
+     * operation ends. Deltas translated from resource change events that are
+     * reported in other threads are not held back by the operation.
+     * <p>
+     * As with a positive {@link #setDeltaCoalescingDelay(long) coalescing
+     * delay}, the accumulated deltas do not carry resource deltas and marker
+     * deltas, since these are only valid during the resource change
+     * notification they come from.
+     * </p>
+     *
+     * @param action the action to perform (not <code>null</code>)
+     * @param rule the scheduling rule to use when running the action,
+     *  or <code>null</code> if there are no scheduling restrictions
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if progress reporting is not desired
+     * @throws CoreException if the action fails
+     * @see IWorkspace#run(ICoreRunnable, ISchedulingRule, int, IProgressMonitor)
+     */
+    public void runCoalescingDeltas(ICoreRunnable action, ISchedulingRule rule,
+        IProgressMonitor monitor) throws CoreException
+    {
+        CoalescingScope scope = coalescingScope.get();
+        if (scope == null)
+            coalescingScope.set(scope = new CoalescingScope());
+        scope.depth++;
+        try
         {
-            getNotificationManager().fireElementChangeEvent(
-                new ElementChangeEvent(ElementChangeEvent.POST_CHANGE, delta));
+            ResourcesPlugin.getWorkspace().run(action, rule,
+                IWorkspace.AVOID_UPDATE, monitor);
         }
+        finally
+        {
+            if (--scope.depth == 0)
+            {
+                coalescingScope.remove();
+                JavaElementDelta delta;
+                synchronized (deltaLock)
+                {
+                    // keep the order with respect to the deltas delayed so far
+                    pendingDelta.add(scope.take());
+                    delta = pendingDelta.take();
+                }
+                fireDelta(delta);
+            }
+        }
+    }
+
+    private void deltaTranslated(JavaElementDelta delta)
+    {
+        CoalescingScope scope = coalescingScope.get();
+        if (scope != null)
+        {
+            // the delta is reported within a coalescing operation
+            // run by this thread; hold it back until the operation ends
+            scope.add(delta);
+            return;
+        }
+        JavaElementDelta pending;
+        synchronized (deltaLock)
+        {
+            long delay = coalescingDelay;
+            if (delay != 0)
+            {
+                pendingDelta.add(delta);
+                if (fireDeltaJob.getState() != Job.SLEEPING)
+                    fireDeltaJob.schedule(delay);
+                return;
+            }
+            pending = pendingDelta.take();
+        }
+        fireDelta(pending);
+        fireDelta(delta); // fired during the notification, keeps the payload
+    }
+
+    private void firePendingDelta()
+    {
+        JavaElementDelta delta;
+        synchronized (deltaLock)
+        {
+            delta = pendingDelta.take();
+        }
+        fireDelta(delta);
+    }
+
+    private void fireDelta(JavaElementDelta delta)
+    {
+        if (delta == null || delta.isEmpty_())
+            return;
+        getNotificationManager().fireElementChangeEvent(new ElementChangeEvent(
+            ElementChangeEvent.POST_CHANGE, delta));
+    }
+
+    @Override
+    public void preferenceChange(PreferenceChangeEvent event)
+    {
+        // workspace-wide options are inherited by all projects
+        List<PerProjectInfo> infos;
+        synchronized (perProjectInfo)
+        {
+            infos = new ArrayList<>(perProjectInfo.values());
+        }
+        String key = event.getKey();
+        boolean levelChanged = JavaCore.COMPILER_SOURCE.equals(key)
+            || JavaCore.COMPILER_COMPLIANCE.equals(key);
+        DeltaProcessingState deltaState = this.deltaState;
+        JavaModel javaModel = this.javaModel;
+        JavaElementDelta.Builder builder = null;
+        for (PerProjectInfo info : infos)
+        {
+            if (levelChanged && deltaState != null && javaModel != null)
+            {
+                JavaProject javaProject = (JavaProject)JavaModelCore.create(
+                    info.getProject());
+                // package and CU names need revalidation, as in
+                // DeltaProcessor.checkOptionsChange
+                if (deltaState.optionsChanged(javaProject))
+                {
+                    if (builder == null)
+                        builder = new JavaElementDelta.Builder(
+                            new JavaElementDelta(javaModel));
+                    builder.changed(javaProject, IJavaElementDelta.F_CONTENT);
+                    javaProject.close_();
+                }
+            }
+            else
+            {
+                info.resetOptions();
+            }
+        }
+        if (builder != null)
+            fireDelta((JavaElementDelta)builder.getDelta());
     }
 
     @Override
@@ -210,6 +519,82 @@ public class JavaModelManager
         }
     }
 
+    private class FireDeltaJob
+        extends Job
+    {
+        FireDeltaJob()
+        {
+            super(""); //$NON-NLS-1$
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor)
+        {
+            firePendingDelta();
+            return Status.OK_STATUS;
+        }
+    }
+
+    /**
+     * Accumulates Java element deltas by merging them into a single delta
+     * that is to be fired after the resource change notifications the deltas
+     * were translated from. Resource deltas and marker deltas are only valid
+     * during the notification they come from, so they are dropped from each
+     * added delta; the corresponding change flags are retained.
+     */
+    private static class DeltaAccumulator
+    {
+        private JavaElementDelta delta;
+
+        /**
+         * Adds the given delta to the accumulated delta.
+         *
+         * @param delta may be <code>null</code>, in which case
+         *  this method does nothing
+         */
+        void add(JavaElementDelta delta)
+        {
+            if (delta == null)
+                return;
+            delta.dropResourceDeltas();
+            if (this.delta == null)
+                this.delta = delta;
+            else
+                this.delta.mergeWith(delta);
+        }
+
+        /**
+         * Returns the accumulated delta and resets the accumulator.
+         *
+         * @return the accumulated delta, or <code>null</code> if none
+         */
+        JavaElementDelta take()
+        {
+            JavaElementDelta result = delta;
+            delta = null;
+            return result;
+        }
+    }
+
+    /**
+     * Holds back the deltas translated from resource change events reported
+     * in the thread that runs a coalescing operation.
+     *
+     * @see JavaModelManager#runCoalescingDeltas(ICoreRunnable, ISchedulingRule,
+     *  IProgressMonitor)
+     */
+    private static class CoalescingScope
+        extends DeltaAccumulator
+    {
+        int depth;
+    }
+
+    private static IEclipsePreferences getJavaCorePreferences()
+    {
+        return InstanceScope.INSTANCE.getNode(JavaCore.PLUGIN_ID);
+    }
+
     private JavaModelManager()
     {
     }
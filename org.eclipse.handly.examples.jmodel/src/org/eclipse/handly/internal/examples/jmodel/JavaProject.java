@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,6 +13,7 @@
 package org.eclipse.handly.internal.examples.jmodel;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,12 +22,14 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.handly.context.IContext;
 import org.eclipse.handly.examples.jmodel.IJavaProject;
 import org.eclipse.handly.examples.jmodel.IPackageFragment;
 import org.eclipse.handly.examples.jmodel.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.JavaConventions;
 import org.eclipse.jdt.core.JavaCore;
 
 /**
@@ -194,12 +197,22 @@ public class JavaProject
 
     void resetRawClasspath()
     {
-        PerProjectInfo info = JavaModelManager.INSTANCE.getPerProjectInfo(
-            project, false);
+        PerProjectInfo info = peekAtPerProjectInfo();
         if (info != null)
             info.setRawClasspath(null, null);
     }
 
+    /*
+     * Returns the per-project info without checking the project existence,
+     * or null if the info doesn't exist. The info is created for each Java
+     * project known to the model, so it may only be missing for a project
+     * that does not exist or has not been accessed yet.
+     */
+    private PerProjectInfo peekAtPerProjectInfo()
+    {
+        return JavaModelManager.INSTANCE.getPerProjectInfo(project, false);
+    }
+
     /**
      * Helper method for returning one option value only. Equivalent to
      * <code>(String)this.getOptions(inheritJavaCoreOptions).get(optionName)</code>
@@ -213,6 +226,12 @@ public class JavaProject
      */
     public String getOption(String optionName, boolean inheritJavaCoreOptions)
     {
+        if (inheritJavaCoreOptions)
+        {
+            PerProjectInfo info = peekAtPerProjectInfo();
+            if (info != null)
+                return info.getOptions().get(optionName);
+        }
         // Cheat and delegate directly to JDT
         return JavaCore.create(project).getOption(optionName,
             inheritJavaCoreOptions);
@@ -231,10 +250,72 @@ public class JavaProject
      */
     public Map<String, String> getOptions(boolean inheritJavaCoreOptions)
     {
+        if (inheritJavaCoreOptions)
+        {
+            PerProjectInfo info = peekAtPerProjectInfo();
+            if (info != null)
+                return new HashMap<>(info.getOptions());
+        }
         // Cheat and delegate directly to JDT
         return JavaCore.create(project).getOptions(inheritJavaCoreOptions);
     }
 
+    /**
+     * Returns the compiler options for this project, i.e. all the options
+     * for this project, including the inherited <code>JavaCore</code> options,
+     * but excluding the task tags.
+     *
+     * @return the compiler options for this project
+     *  (never <code>null</code>, unmodifiable)
+     */
+    Map<String, String> getCompilerOptions()
+    {
+        PerProjectInfo info = peekAtPerProjectInfo();
+        if (info != null)
+            return info.getCompilerOptions();
+        Map<String, String> options = JavaCore.create(project).getOptions(
+            true);
+        options.remove(JavaCore.COMPILER_TASK_TAGS);
+        return options;
+    }
+
+    IStatus validateCompilationUnitName(String name)
+    {
+        PerProjectInfo info = peekAtPerProjectInfo();
+        if (info != null)
+            return info.validateCompilationUnitName(name);
+        return JavaConventions.validateCompilationUnitName(name, getOption(
+            JavaCore.COMPILER_SOURCE, true), getOption(
+                JavaCore.COMPILER_COMPLIANCE, true));
+    }
+
+    IStatus validateIdentifier(String name)
+    {
+        PerProjectInfo info = peekAtPerProjectInfo();
+        if (info != null)
+            return info.validateIdentifier(name);
+        return JavaConventions.validateIdentifier(name, getOption(
+            JavaCore.COMPILER_SOURCE, true), getOption(
+                JavaCore.COMPILER_COMPLIANCE, true));
+    }
+
+    void resetOptions()
+    {
+        PerProjectInfo info = peekAtPerProjectInfo();
+        if (info != null)
+            info.resetOptions();
+    }
+
+    /*
+     * Discards the cached options and returns whether the source or compliance
+     * level has changed since it was last used for validation of Java names.
+     */
+    boolean resetOptionsAndCheckLevels()
+    {
+        PerProjectInfo info = peekAtPerProjectInfo();
+        return info != null && info.resetOptionsAndCheckLevels();
+    }
+
     @Override
     public IResource getResource_()
     {
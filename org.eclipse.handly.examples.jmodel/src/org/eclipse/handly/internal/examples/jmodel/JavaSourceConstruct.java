@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 1C-Soft LLC and others.
+ * Copyright (c) 2017, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,6 +13,7 @@
 package org.eclipse.handly.internal.examples.jmodel;
 
 import org.eclipse.handly.model.impl.support.ISourceConstructImplSupport;
+import org.eclipse.handly.model.impl.support.SourceBodyTable;
 
 /**
  * Abstract class for Java elements that are source constructs.
@@ -52,6 +53,44 @@ public abstract class JavaSourceConstruct
         this.occurrenceCount = occurrenceCount;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the compilation unit was built in the compact structure mode
+     * or, for an import declaration, in the lazy imports mode, the body
+     * of this element is not stored in the body cache; instead, this
+     * implementation materializes it from the compilation unit's body.
+     * </p>
+     */
+    @Override
+    public Object findBody_()
+    {
+        Object body = super.findBody_();
+        if (body == null)
+            body = newBodyFromTable(getAncestorOfType(
+                CompilationUnit.class).findBody_());
+        return body;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the compilation unit was built in the compact structure mode
+     * or, for an import declaration, in the lazy imports mode, the body
+     * of this element is not stored in the body cache; instead, this
+     * implementation materializes it from the compilation unit's body.
+     * </p>
+     */
+    @Override
+    public Object peekAtBody_()
+    {
+        Object body = super.peekAtBody_();
+        if (body == null)
+            body = newBodyFromTable(getAncestorOfType(
+                CompilationUnit.class).peekAtBody_());
+        return body;
+    }
+
     @Override
     protected void getHandleMemento(StringBuilder sb)
     {
@@ -97,4 +136,15 @@ public abstract class JavaSourceConstruct
         else
             return getHandleFromMemento(token, memento);
     }
+
+    private Object newBodyFromTable(Object cuBody)
+    {
+        if (!(cuBody instanceof CompilationUnitBody))
+            return null;
+        SourceBodyTable bodyTable =
+            ((CompilationUnitBody)cuBody).getBodyTable();
+        if (bodyTable == null)
+            return null;
+        return bodyTable.getBody(this);
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -35,9 +35,9 @@ public final class MementoTokenizer
     static final String FIELD = Character.toString(JavaElement.JEM_FIELD);
     static final String METHOD = Character.toString(JavaElement.JEM_METHOD);
 
-    private final char[] memento;
+    private final String memento;
     private final int length;
-    private int index = 0;
+    private int index;
 
     static boolean isDelimeter(String token)
     {
@@ -48,10 +48,54 @@ public final class MementoTokenizer
             || token == METHOD;
     }
 
+    /**
+     * Returns the index of the first unescaped delimiter of a source construct
+     * in the given memento, or the length of the memento if there is no such
+     * delimiter. The part of the memento before that index identifies
+     * a resource-level element, i.e. the Java model, a project, a package
+     * fragment root, a package fragment, or a compilation unit.
+     *
+     * @param memento not <code>null</code>
+     * @return the index of the first source construct delimiter
+     */
+    static int indexOfSourceConstruct(String memento)
+    {
+        for (int i = 0, length = memento.length(); i < length; i++)
+        {
+            switch (memento.charAt(i))
+            {
+            case JavaElement.JEM_ESCAPE:
+                i++;
+                break;
+            case JavaElement.JEM_COUNT:
+            case JavaElement.JEM_PACKAGEDECLARATION:
+            case JavaElement.JEM_IMPORTDECLARATION:
+            case JavaElement.JEM_TYPE:
+            case JavaElement.JEM_FIELD:
+            case JavaElement.JEM_METHOD:
+                return i;
+            }
+        }
+        return memento.length();
+    }
+
     public MementoTokenizer(String memento)
     {
-        this.memento = memento.toCharArray();
-        this.length = this.memento.length;
+        this(memento, 0);
+    }
+
+    /**
+     * Creates a tokenizer for the part of the given memento that starts
+     * at the given index.
+     *
+     * @param memento not <code>null</code>
+     * @param index the start index
+     */
+    MementoTokenizer(String memento, int index)
+    {
+        this.memento = memento;
+        this.length = memento.length();
+        this.index = index;
     }
 
     boolean hasMoreTokens()
@@ -65,11 +109,11 @@ public final class MementoTokenizer
             throw new NoSuchElementException();
         int start = index;
         StringBuilder sb = null;
-        switch (memento[index++])
+        switch (memento.charAt(index++))
         {
         case JavaElement.JEM_ESCAPE:
             sb = new StringBuilder();
-            sb.append(memento[index]);
+            sb.append(memento.charAt(index));
             start = ++index;
             break;
         case JavaElement.JEM_JAVAPROJECT:
@@ -95,12 +139,12 @@ public final class MementoTokenizer
         }
         loop: while (index < length)
         {
-            switch (memento[index])
+            switch (memento.charAt(index))
             {
             case JavaElement.JEM_ESCAPE:
                 if (sb == null)
                     sb = new StringBuilder();
-                sb.append(memento, start, index - start);
+                sb.append(memento, start, index);
                 start = ++index;
                 break;
             case JavaElement.JEM_JAVAPROJECT:
@@ -119,12 +163,12 @@ public final class MementoTokenizer
         }
         if (sb != null)
         {
-            sb.append(memento, start, index - start);
+            sb.append(memento, start, index);
             return sb.toString();
         }
         else
         {
-            return new String(memento, start, index - start);
+            return memento.substring(start, index);
         }
     }
 }
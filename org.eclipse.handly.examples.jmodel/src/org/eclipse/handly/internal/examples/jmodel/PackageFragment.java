@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 1C-Soft LLC and others.
+ * Copyright (c) 2015, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -32,8 +32,6 @@ import org.eclipse.handly.context.IContext;
 import org.eclipse.handly.examples.jmodel.ICompilationUnit;
 import org.eclipse.handly.examples.jmodel.IPackageFragment;
 import org.eclipse.handly.util.IndentPolicy;
-import org.eclipse.jdt.core.JavaConventions;
-import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.Signature;
 
 /**
@@ -135,14 +133,10 @@ public class PackageFragment
     boolean isValidPackageName()
     {
         JavaProject javaProject = getParent().getParent();
-        String sourceLevel = javaProject.getOption(JavaCore.COMPILER_SOURCE,
-            true);
-        String complianceLevel = javaProject.getOption(
-            JavaCore.COMPILER_COMPLIANCE, true);
         for (String simpleName : simpleNames)
         {
-            if (JavaConventions.validateIdentifier(simpleName, sourceLevel,
-                complianceLevel).getSeverity() == IStatus.ERROR)
+            if (javaProject.validateIdentifier(
+                simpleName).getSeverity() == IStatus.ERROR)
             {
                 return false;
             }
@@ -181,17 +175,12 @@ public class PackageFragment
         if (members.length > 0)
         {
             JavaProject javaProject = getAncestorOfType(JavaProject.class);
-            String sourceLevel = javaProject.getOption(JavaCore.COMPILER_SOURCE,
-                true);
-            String complianceLevel = javaProject.getOption(
-                JavaCore.COMPILER_COMPLIANCE, true);
             for (IResource member : members)
             {
                 if (member instanceof IFile)
                 {
-                    if (JavaConventions.validateCompilationUnitName(
-                        member.getName(), sourceLevel,
-                        complianceLevel).getSeverity() != IStatus.ERROR)
+                    if (javaProject.validateCompilationUnitName(
+                        member.getName()).getSeverity() != IStatus.ERROR)
                     {
                         children.add(new CompilationUnit(this, (IFile)member,
                             null));
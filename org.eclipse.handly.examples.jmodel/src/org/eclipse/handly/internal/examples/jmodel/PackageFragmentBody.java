@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -19,8 +19,6 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.handly.model.impl.support.Body;
-import org.eclipse.jdt.core.JavaConventions;
-import org.eclipse.jdt.core.JavaCore;
 
 /**
  * <code>Body</code> extension for the package fragment.
@@ -59,26 +57,20 @@ public class PackageFragmentBody
         ArrayList<Object> result = new ArrayList<Object>();
         JavaProject javaProject = packageFragment.getAncestorOfType(
             JavaProject.class);
-        String sourceLevel = javaProject.getOption(JavaCore.COMPILER_SOURCE,
-            true);
-        String complianceLevel = javaProject.getOption(
-            JavaCore.COMPILER_COMPLIANCE, true);
         for (IResource member : members)
         {
             if (member.getType() == IResource.FILE)
             {
-                if (JavaConventions.validateCompilationUnitName(
-                    member.getName(), sourceLevel,
-                    complianceLevel).getSeverity() != IStatus.ERROR)
+                if (javaProject.validateCompilationUnitName(
+                    member.getName()).getSeverity() != IStatus.ERROR)
                 {
                     continue; // ignore .java files
                 }
             }
             else if (member.getType() == IResource.FOLDER)
             {
-                if (JavaConventions.validateIdentifier(member.getName(),
-                    sourceLevel,
-                    complianceLevel).getSeverity() != IStatus.ERROR)
+                if (javaProject.validateIdentifier(
+                    member.getName()).getSeverity() != IStatus.ERROR)
                 {
                     continue; // ignore valid packages
                 }
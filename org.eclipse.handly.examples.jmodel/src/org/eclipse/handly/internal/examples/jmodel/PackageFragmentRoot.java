@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,6 +13,10 @@
 package org.eclipse.handly.internal.examples.jmodel;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFolder;
@@ -21,13 +25,14 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.handly.context.IContext;
 import org.eclipse.handly.examples.jmodel.IPackageFragment;
 import org.eclipse.handly.examples.jmodel.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IClasspathEntry;
-import org.eclipse.jdt.core.JavaConventions;
-import org.eclipse.jdt.core.JavaCore;
 
 /**
  * Implementation of {@link IPackageFragmentRoot}.
@@ -130,44 +135,40 @@ public class PackageFragmentRoot
         throws CoreException
     {
         PackageFragmentRootBody body = new PackageFragmentRootBody();
-        ArrayList<IPackageFragment> children = new ArrayList<>();
+        List<IPackageFragment> children = Collections.emptyList();
         if (resource.getType() == IResource.FOLDER
             || resource.getType() == IResource.PROJECT)
         {
             IContainer rootFolder = (IContainer)resource;
-            computeFolderChildren(rootFolder, Path.EMPTY, children);
+            children = computeFolderChildren(rootFolder, monitor);
         }
         body.setChildren(children.toArray(NO_CHILDREN));
         context.get(NEW_ELEMENTS).put(this, body);
     }
 
-    private void computeFolderChildren(IContainer folder, IPath packagePath,
-        ArrayList<IPackageFragment> children) throws CoreException
+    /*
+     * Returns the package fragments for the given root folder and all of its
+     * subfolders that are valid packages, in pre-order. The subfolders are
+     * traversed in parallel, unless the calling thread owns a scheduling rule:
+     * in that case, the thread may be in the middle of modifying resources,
+     * so the folders are only read by the calling thread itself.
+     */
+    private List<IPackageFragment> computeFolderChildren(IContainer rootFolder,
+        IProgressMonitor monitor) throws CoreException
     {
-        children.add(new PackageFragment(this, packagePath.segments()));
-
-        IResource[] members = folder.members();
-        if (members.length > 0)
+        boolean parallel = Job.getJobManager().currentRule() == null;
+        FolderTraversal traversal = new FolderTraversal(rootFolder, Path.EMPTY,
+            parallel, SubMonitor.convert(monitor));
+        try
         {
-            JavaProject javaProject = getParent();
-            String sourceLevel = javaProject.getOption(JavaCore.COMPILER_SOURCE,
-                true);
-            String complianceLevel = javaProject.getOption(
-                JavaCore.COMPILER_COMPLIANCE, true);
-            for (IResource member : members)
-            {
-                if (member instanceof IFolder)
-                {
-                    String memberName = member.getName();
-                    if (JavaConventions.validateIdentifier(memberName,
-                        sourceLevel,
-                        complianceLevel).getSeverity() != IStatus.ERROR)
-                    {
-                        computeFolderChildren((IFolder)member,
-                            packagePath.append(memberName), children);
-                    }
-                }
-            }
+            if (parallel)
+                return JavaModelManager.INSTANCE.getTraversalPool().invoke(
+                    traversal);
+            return traversal.compute();
+        }
+        catch (TraversalException e)
+        {
+            throw e.getCoreException();
         }
     }
 
@@ -210,4 +211,161 @@ public class PackageFragmentRoot
         }
         return null;
     }
+
+    /*
+     * Computes the package fragments for a folder and its subfolders.
+     * The results of subfolder traversals are concatenated in the order
+     * of the subfolders, so the resulting order is deterministic and is
+     * the same for parallel and serial traversals.
+     */
+    private class FolderTraversal
+        extends RecursiveTask<List<IPackageFragment>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final IContainer folder;
+        private final IPath packagePath;
+        private final boolean parallel;
+        private final IProgressMonitor monitor;
+
+        FolderTraversal(IContainer folder, IPath packagePath, boolean parallel,
+            IProgressMonitor monitor)
+        {
+            this.folder = folder;
+            this.packagePath = packagePath;
+            this.parallel = parallel;
+            this.monitor = monitor;
+        }
+
+        @Override
+        protected List<IPackageFragment> compute()
+        {
+            if (monitor.isCanceled())
+                throw new OperationCanceledException();
+
+            IResource[] members;
+            try
+            {
+                members = members();
+            }
+            catch (CoreException e)
+            {
+                throw new TraversalException(e);
+            }
+            List<FolderTraversal> subtasks = new ArrayList<>();
+            JavaProject javaProject = getParent();
+            for (IResource member : members)
+            {
+                if (member instanceof IFolder)
+                {
+                    String memberName = member.getName();
+                    if (javaProject.validateIdentifier(
+                        memberName).getSeverity() != IStatus.ERROR)
+                    {
+                        subtasks.add(new FolderTraversal((IFolder)member,
+                            packagePath.append(memberName), parallel,
+                            monitor));
+                    }
+                }
+            }
+            if (parallel)
+                invokeAll(subtasks);
+
+            List<IPackageFragment> result = new ArrayList<>();
+            result.add(new PackageFragment(PackageFragmentRoot.this,
+                packagePath.segments()));
+            for (FolderTraversal subtask : subtasks)
+                result.addAll(parallel ? subtask.join() : subtask.compute());
+            return result;
+        }
+
+        /*
+         * Returns the members of the folder. When running in the pool,
+         * the file system access is done through a managed blocker,
+         * so that the pool can compensate for the blocked worker.
+         */
+        private IResource[] members() throws CoreException
+        {
+            if (!parallel)
+                return folder.members();
+            MembersBlocker blocker = new MembersBlocker(folder);
+            try
+            {
+                ForkJoinPool.managedBlock(blocker);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new OperationCanceledException();
+            }
+            return blocker.getMembers();
+        }
+    }
+
+    /*
+     * Reads the members of a folder, which may block on file system access.
+     */
+    private static class MembersBlocker
+        implements ForkJoinPool.ManagedBlocker
+    {
+        private final IContainer folder;
+        private IResource[] members;
+        private CoreException exception;
+
+        MembersBlocker(IContainer folder)
+        {
+            this.folder = folder;
+        }
+
+        @Override
+        public boolean block()
+        {
+            try
+            {
+                members = folder.members();
+            }
+            catch (CoreException e)
+            {
+                exception = e;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable()
+        {
+            return members != null || exception != null;
+        }
+
+        IResource[] getMembers() throws CoreException
+        {
+            if (exception != null)
+                throw exception;
+            return members;
+        }
+    }
+
+    /*
+     * Carries a CoreException out of a folder traversal. Note that
+     * the fork/join framework may rethrow a copy of the original exception
+     * with the original as the cause.
+     */
+    private static class TraversalException
+        extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        TraversalException(Throwable cause)
+        {
+            super(cause);
+        }
+
+        CoreException getCoreException()
+        {
+            Throwable cause = getCause();
+            while (cause instanceof TraversalException)
+                cause = cause.getCause();
+            return (CoreException)cause;
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,9 +12,18 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.jmodel;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.JavaConventions;
 import org.eclipse.jdt.core.JavaCore;
 
 /**
@@ -26,6 +35,11 @@ public class PerProjectInfo
     private final IProject project;
     private volatile IClasspathEntry[] rawClasspath;
     private volatile IPath outputLocation;
+    private volatile OptionsInfo optionsInfo;
+    private int optionsGeneration; // guarded by this; incremented on reset
+    // the source and compliance levels of the most recently read options,
+    // i.e. the levels last used for validation of Java names
+    private String[] levels; // guarded by this
 
     /**
      * Creates a new per-project info for the given project.
@@ -95,9 +109,166 @@ public class PerProjectInfo
         return outputLocation;
     }
 
+    /**
+     * Returns the cached table of all options for the project,
+     * including the inherited <code>JavaCore</code> options.
+     *
+     * @return the cached table of options for the project
+     *  (never <code>null</code>, unmodifiable)
+     */
+    public Map<String, String> getOptions()
+    {
+        return getOptionsInfo().options;
+    }
+
+    /**
+     * Returns the cached compiler options for the project, i.e. all
+     * the options for the project, including the inherited
+     * <code>JavaCore</code> options, but excluding the task tags.
+     *
+     * @return the cached compiler options for the project
+     *  (never <code>null</code>, unmodifiable)
+     */
+    public Map<String, String> getCompilerOptions()
+    {
+        return getOptionsInfo().compilerOptions;
+    }
+
+    /**
+     * Validates the given compilation unit name according to the cached
+     * source and compliance levels of the project. The result is memoized
+     * until the options are reset.
+     *
+     * @param name the name of a compilation unit
+     * @return the validation status (never <code>null</code>)
+     * @see JavaConventions#validateCompilationUnitName(String, String, String)
+     */
+    public IStatus validateCompilationUnitName(String name)
+    {
+        OptionsInfo info = getOptionsInfo();
+        return info.memoize(info.compilationUnitNames, name,
+            key -> JavaConventions.validateCompilationUnitName(key,
+                info.sourceLevel, info.complianceLevel));
+    }
+
+    /**
+     * Validates the given identifier according to the cached source and
+     * compliance levels of the project. The result is memoized until
+     * the options are reset.
+     *
+     * @param name the identifier
+     * @return the validation status (never <code>null</code>)
+     * @see JavaConventions#validateIdentifier(String, String, String)
+     */
+    public IStatus validateIdentifier(String name)
+    {
+        OptionsInfo info = getOptionsInfo();
+        return info.memoize(info.identifiers, name,
+            key -> JavaConventions.validateIdentifier(key, info.sourceLevel,
+                info.complianceLevel));
+    }
+
     void setRawClasspath(IClasspathEntry[] rawClasspath, IPath outputLocation)
     {
         this.rawClasspath = rawClasspath;
         this.outputLocation = outputLocation;
     }
+
+    synchronized void resetOptions()
+    {
+        optionsGeneration++;
+        optionsInfo = null;
+    }
+
+    /**
+     * Discards the cached options and returns whether the source or
+     * compliance level of the project differs from the levels that were
+     * last used for validation of Java names. Unlike the cached options,
+     * the last used levels survive the reset, so that the change is detected
+     * even if the options have already been reset for an unrelated reason.
+     *
+     * @return <code>true</code> if the source or compliance level
+     *  has changed, and <code>false</code> otherwise
+     */
+    boolean resetOptionsAndCheckLevels()
+    {
+        String[] oldLevels;
+        synchronized (this)
+        {
+            oldLevels = levels;
+        }
+        resetOptions();
+        if (oldLevels == null)
+            return false; // the levels have not been used yet
+        OptionsInfo info = getOptionsInfo();
+        return !Objects.equals(oldLevels[0], info.sourceLevel)
+            || !Objects.equals(oldLevels[1], info.complianceLevel);
+    }
+
+    private OptionsInfo getOptionsInfo()
+    {
+        OptionsInfo optionsInfo = this.optionsInfo;
+        if (optionsInfo == null)
+        {
+            int generation;
+            synchronized (this)
+            {
+                generation = optionsGeneration;
+            }
+            optionsInfo = new OptionsInfo(JavaCore.create(project).getOptions(
+                true));
+            synchronized (this)
+            {
+                // don't publish the options if they have been reset
+                // since they were read, as they may be stale
+                if (generation == optionsGeneration)
+                    this.optionsInfo = optionsInfo;
+                levels = new String[] { optionsInfo.sourceLevel,
+                    optionsInfo.complianceLevel };
+            }
+        }
+        return optionsInfo;
+    }
+
+    /*
+     * The options are kept together with the name validation memos
+     * computed from them, so that resetting the options also discards
+     * the memos atomically.
+     */
+    private static class OptionsInfo
+    {
+        private static final int MAX_MEMO_SIZE = 10000;
+
+        final Map<String, String> options;
+        final Map<String, String> compilerOptions;
+        final String sourceLevel;
+        final String complianceLevel;
+        final Map<String, IStatus> compilationUnitNames =
+            new ConcurrentHashMap<>();
+        final Map<String, IStatus> identifiers = new ConcurrentHashMap<>();
+
+        OptionsInfo(Map<String, String> options)
+        {
+            this.options = Collections.unmodifiableMap(options);
+            Map<String, String> compilerOptions = new HashMap<>(options);
+            compilerOptions.remove(JavaCore.COMPILER_TASK_TAGS);
+            this.compilerOptions = Collections.unmodifiableMap(
+                compilerOptions);
+            this.sourceLevel = options.get(JavaCore.COMPILER_SOURCE);
+            this.complianceLevel = options.get(JavaCore.COMPILER_COMPLIANCE);
+        }
+
+        IStatus memoize(Map<String, IStatus> memo, String name,
+            Function<String, IStatus> validator)
+        {
+            IStatus status = memo.get(name);
+            if (status == null)
+            {
+                status = validator.apply(name);
+                if (memo.size() < MAX_MEMO_SIZE)
+                    memo.put(name, status);
+            }
+            return status;
+        }
+    }
 }
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.buffer;
+
+import java.util.Random;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.handly.snapshot.DocumentSnapshot;
+import org.eclipse.handly.snapshot.ISnapshot;
+import org.eclipse.handly.snapshot.StaleSnapshotException;
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>RopeBuffer</code> tests.
+ */
+public class RopeBufferTest
+    extends TestCase
+{
+    public void testRope() throws Exception
+    {
+        Random random = new Random(42);
+        StringBuilder expected = new StringBuilder();
+        Rope rope = Rope.EMPTY;
+        for (int i = 0; i < 2000; i++)
+        {
+            int offset = random.nextInt(expected.length() + 1);
+            int length = random.nextInt(Math.min(expected.length() - offset,
+                100) + 1);
+            String text = randomText(random, random.nextInt(10) == 0 ? 2000
+                : 10);
+            expected.replace(offset, offset + length, text);
+            rope = rope.replace(offset, length, text);
+            assertEquals(expected.length(), rope.length());
+        }
+        assertEquals(expected.toString(), rope.toString());
+        assertTrue(rope.height() <= 2 * log2(rope.length()));
+        for (int i = 0; i < 100; i++)
+        {
+            int start = random.nextInt(expected.length() + 1);
+            int end = start + random.nextInt(expected.length() - start + 1);
+            assertEquals(expected.substring(start, end), rope.substring(start,
+                end));
+            if (start < expected.length())
+                assertEquals(expected.charAt(start), rope.charAt(start));
+        }
+        assertTrue(rope.contentEquals(Rope.of(expected.toString())));
+        assertFalse(rope.contentEquals(rope.replace(0, 1, "\0")));
+    }
+
+    public void testSnapshot() throws Exception
+    {
+        RopeBuffer buffer = new RopeBuffer("foo");
+        ISnapshot snapshot = buffer.getSnapshot();
+        assertTrue(snapshot.isEqualTo(buffer.getSnapshot()));
+        assertTrue(snapshot.isEqualTo(new DocumentSnapshot(
+            buffer.getDocument())));
+        buffer.getDocument().replace(0, 3, "bar");
+        assertEquals("foo", snapshot.getContents()); // does not expire
+        assertFalse(snapshot.isEqualTo(buffer.getSnapshot()));
+        buffer.getDocument().replace(0, 3, "foo");
+        assertTrue(snapshot.isEqualTo(buffer.getSnapshot()));
+        assertTrue(snapshot.isEqualTo(new RopeBuffer("foo").getSnapshot()));
+    }
+
+    public void testApplyChange() throws Exception
+    {
+        RopeBuffer buffer = new RopeBuffer("a b c");
+        ISnapshot base = buffer.getSnapshot();
+        MultiTextEdit edit = new MultiTextEdit();
+        edit.addChild(new ReplaceEdit(0, 1, "x"));
+        edit.addChild(new InsertEdit(3, "yy"));
+        BufferChange change = new BufferChange(edit);
+        change.setBase(base);
+        IBufferChange undoChange = buffer.applyChange(change,
+            new NullProgressMonitor());
+        assertEquals("x byy c", buffer.getDocument().get());
+        assertEquals(7, buffer.getDocument().getLineLength(0));
+        try
+        {
+            buffer.applyChange(change, new NullProgressMonitor());
+            fail();
+        }
+        catch (StaleSnapshotException e)
+        {
+        }
+        buffer.applyChange(undoChange, new NullProgressMonitor());
+        assertEquals("a b c", buffer.getDocument().get());
+        assertTrue(base.isEqualTo(buffer.getSnapshot()));
+    }
+
+    private static String randomText(Random random, int maxLength)
+    {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            sb.append((char)('a' + random.nextInt(26)));
+        return sb.toString();
+    }
+
+    private static int log2(int n)
+    {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(n, 1));
+    }
+}
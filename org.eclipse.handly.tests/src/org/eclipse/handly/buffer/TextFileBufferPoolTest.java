@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.buffer;
+
+import org.eclipse.core.filebuffers.ITextFileBufferManager;
+import org.eclipse.core.filebuffers.LocationKind;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.handly.junit.NoJobsWorkspaceTestCase;
+
+/**
+ * <code>TextFileBufferPool</code> tests.
+ */
+public class TextFileBufferPoolTest
+    extends NoJobsWorkspaceTestCase
+{
+    private IFile f1, f2;
+    private TextFileBufferPool pool;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        IProject p = getProject("p");
+        p.create(null);
+        p.open(null);
+        f1 = p.getFile("f1");
+        f2 = p.getFile("f2");
+        pool = new TextFileBufferPool(1, 60000);
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        if (pool != null)
+            pool.clear();
+        super.tearDown();
+    }
+
+    public void test1() throws Exception
+    {
+        try (TextFileBuffer buffer = TextFileBuffer.forFile(f1))
+        {
+            pool.keepAlive(buffer);
+            pool.keepAlive(buffer);
+            buffer.getDocument().set("foo");
+        }
+        assertEquals(1, pool.size());
+        assertTrue(isConnected(f1));
+        try (TextFileBuffer buffer = TextFileBuffer.forFile(f1))
+        {
+            assertEquals("foo", buffer.getDocument().get()); // kept alive
+        }
+
+        try (TextFileBuffer buffer = TextFileBuffer.forFile(f2))
+        {
+            pool.keepAlive(buffer);
+        }
+        assertEquals(1, pool.size());
+        assertFalse(isConnected(f1)); // evicted
+        assertTrue(isConnected(f2));
+
+        pool.clear();
+        assertEquals(0, pool.size());
+        assertFalse(isConnected(f2));
+    }
+
+    private static boolean isConnected(IFile file)
+    {
+        return ITextFileBufferManager.DEFAULT.getTextFileBuffer(
+            file.getFullPath(), LocationKind.IFILE) != null;
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.model.impl.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.handly.context.IContext;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>NonOpenableElementCache</code> tests.
+ */
+public class NonOpenableElementCacheTest
+    extends TestCase
+{
+    private NonOpenableElementCache cache;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        cache = new NonOpenableElementCache(10);
+        cache.setLoadFactor(0.5);
+    }
+
+    public void test1()
+    {
+        Openable a = new Openable("A", true);
+        Openable b = new Openable("B", true);
+        cache.putChildren(a, newChildren(a, 6));
+        assertEquals(6, cache.size());
+        cache.putChildren(b, newChildren(b, 6));
+        assertEquals(1, a.closeCount);
+        assertEquals(0, b.closeCount);
+        assertEquals(6, cache.size());
+        assertNull(cache.peek(a.getChild("0")));
+        assertNotNull(cache.peek(b.getChild("0")));
+    }
+
+    public void test2()
+    {
+        Openable a = new Openable("A", false); // refuses to close
+        Openable b = new Openable("B", true);
+        cache.putChildren(a, newChildren(a, 6));
+        cache.putChildren(b, newChildren(b, 4));
+        assertEquals(0, a.closeCount);
+        assertEquals(10, cache.size());
+        Openable c = new Openable("C", true);
+        cache.put(c.getChild("0"), new Object());
+        // a is asked to close only once per eviction pass
+        assertEquals(1, a.closeCount);
+        assertEquals(1, b.closeCount);
+        assertEquals(7, cache.size());
+        assertNotNull(cache.peek(a.getChild("0")));
+        assertNull(cache.peek(b.getChild("0")));
+    }
+
+    public void test3()
+    {
+        Openable a = new Openable("A", true);
+        cache.putChildren(a, newChildren(a, 20));
+        assertEquals(0, a.closeCount);
+        assertEquals(20, cache.size());
+        assertTrue(cache.maxSize() > 20);
+        assertNull(cache.peek(a));
+    }
+
+    private static Map<IElementImplSupport, Object> newChildren(
+        Openable openable, int count)
+    {
+        Map<IElementImplSupport, Object> result = new LinkedHashMap<>();
+        result.put(openable, new Object());
+        for (int i = 0; i < count; i++)
+            result.put(openable.getChild(Integer.toString(i)), new Object());
+        return result;
+    }
+
+    private class Openable
+        extends SimpleElement
+    {
+        final boolean canClose;
+        int closeCount;
+
+        Openable(String name, boolean canClose)
+        {
+            super(null, name, null);
+            this.canClose = canClose;
+        }
+
+        @Override
+        public SimpleElement getChild(String name)
+        {
+            return new Child(this, name);
+        }
+
+        @Override
+        public void close_(IContext context)
+        {
+            closeCount++;
+            if (!canClose)
+                return;
+            for (int i = 0;; i++)
+            {
+                if (cache.remove(getChild(Integer.toString(i))) == null)
+                    break;
+            }
+        }
+    }
+
+    private static class Child
+        extends SimpleElement
+    {
+        Child(Openable parent, String name)
+        {
+            super(parent, name, null);
+        }
+
+        @Override
+        public boolean isOpenable_()
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.model.impl.support;
+
+import static org.eclipse.handly.model.IElementDeltaConstants.CHANGED;
+import static org.eclipse.handly.model.IElementDeltaConstants.F_CONTENT;
+import static org.eclipse.handly.model.IElementDeltaConstants.F_FINE_GRAINED;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.snapshot.DocumentSnapshot;
+import org.eclipse.handly.snapshot.ISnapshot;
+import org.eclipse.handly.util.Property;
+import org.eclipse.handly.util.TextRange;
+import org.eclipse.jface.text.Document;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>SourceBodyTable</code> tests.
+ */
+public class SourceBodyTableTest
+    extends TestCase
+{
+    private static final Property<String> P = Property.get("p", String.class);
+
+    private SimpleSourceFile root;
+    private SimpleSourceConstruct a, b, c, d;
+    private SourceElementBody rootBody, aBody, bBody, cBody, dBody;
+    private Map<IElement, Object> elementBodies;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        root = new SimpleSourceFile(null, "root", null,
+            new SimpleModelManager());
+        a = root.getChild("A");
+        b = root.getChild("B");
+        c = b.getChild("C");
+        d = root.getChild("D");
+
+        rootBody = new SourceElementBody();
+        rootBody.setChildren(new SimpleSourceConstruct[] { a, b, d });
+        aBody = new SourceElementBody();
+        aBody.setFullRange(new TextRange(0, 10));
+        aBody.setIdentifyingRange(new TextRange(2, 1));
+        aBody.set(P, "a");
+        bBody = new SourceElementBody();
+        bBody.setFullRange(new TextRange(10, 10));
+        bBody.setChildren(new IElement[] { c });
+        cBody = new SourceElementBody();
+        cBody.setFullRange(new TextRange(12, 5));
+        dBody = new SourceElementBody()
+        {
+        };
+
+        elementBodies = new HashMap<>();
+        elementBodies.put(root, rootBody);
+        elementBodies.put(a, aBody);
+        elementBodies.put(b, bBody);
+        elementBodies.put(c, cBody);
+        elementBodies.put(d, dBody);
+    }
+
+    public void test1()
+    {
+        SourceBodyTable table = SourceBodyTable.compact(root, elementBodies);
+        assertEquals(3, table.size());
+        assertEquals(2, elementBodies.size());
+        assertSame(rootBody, elementBodies.get(root));
+        assertSame(dBody, elementBodies.get(d)); // not a plain body
+
+        assertEquivalent(aBody, table.getBody(a));
+        assertEquivalent(bBody, table.getBody(b));
+        assertEquivalent(cBody, table.getBody(c));
+        assertNull(table.getBody(d));
+        assertNull(table.getBody(root));
+        assertNull(table.getBody(a.getChild("X")));
+        assertNull(table.getBody(null));
+
+        assertNotSame(table.getBody(a), table.getBody(a));
+    }
+
+    public void test2()
+    {
+        SourceBodyTable table = SourceBodyTable.compact(root, elementBodies);
+        assertNull(table.getBody(a).getSnapshot());
+        ISnapshot snapshot = new DocumentSnapshot(new Document("foo"));
+        rootBody.setSnapshot(snapshot);
+        assertSame(snapshot, table.getBody(a).getSnapshot());
+        assertSame(snapshot, table.getBody(c).getSnapshot());
+    }
+
+    public void test3()
+    {
+        SourceBodyTable oldTable = SourceBodyTable.compact(root,
+            new HashMap<>(elementBodies));
+        aBody.set(P, "b");
+        SourceBodyTable newTable = SourceBodyTable.compact(root,
+            elementBodies);
+
+        ElementDelta.Builder builder = new ElementDelta.Builder(
+            new ElementDelta(root));
+        newTable.getBody(a).findContentChange(oldTable.getBody(a), a,
+            builder);
+        ElementDelta delta = builder.getDelta().findDelta_(a);
+        assertNotNull(delta);
+        assertEquals(CHANGED, delta.getKind_());
+        assertEquals(F_CONTENT | F_FINE_GRAINED, delta.getFlags_());
+
+        builder = new ElementDelta.Builder(new ElementDelta(root));
+        newTable.getBody(b).findContentChange(oldTable.getBody(b), b,
+            builder);
+        assertNull(builder.getDelta().findDelta_(b));
+    }
+
+    public void test4()
+    {
+        Map<IElement, Object> elementBodies = new HashMap<>();
+        SourceElementBody rootBody = new SourceElementBody();
+        SimpleSourceConstruct[] children = new SimpleSourceConstruct[10000];
+        for (int i = 0; i < children.length; i++)
+        {
+            children[i] = root.getChild("C" + i);
+            SourceElementBody body = new SourceElementBody();
+            body.setFullRange(new TextRange(i, 1));
+            elementBodies.put(children[i], body);
+        }
+        rootBody.setChildren(children);
+        elementBodies.put(root, rootBody);
+        SourceBodyTable table = SourceBodyTable.compact(root, elementBodies);
+        assertEquals(children.length, table.size());
+        for (int i = 0; i < children.length; i++)
+        {
+            assertEquals(new TextRange(i, 1), table.getBody(root.getChild("C"
+                + i)).getFullRange());
+        }
+    }
+
+    public void testIllegalArgument()
+    {
+        try
+        {
+            SourceBodyTable.compact(root.getChild("X"), elementBodies);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+    }
+
+    private static void assertEquivalent(SourceElementBody expected,
+        SourceElementBody actual)
+    {
+        assertNotNull(actual);
+        assertEquals(expected.getFullRange(), actual.getFullRange());
+        assertEquals(expected.getIdentifyingRange(),
+            actual.getIdentifyingRange());
+        assertEquals(expected.get(P), actual.get(P));
+        assertEquals(expected.getPropertyNames(), actual.getPropertyNames());
+        assertSame(expected.getSnapshot(), actual.getSnapshot());
+        assertEquals(expected.getChildren().getClass(),
+            actual.getChildren().getClass());
+        assertTrue(Arrays.equals(expected.getChildren(),
+            actual.getChildren()));
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2022 1C-Soft LLC.
+ * Copyright (c) 2018, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -23,6 +23,7 @@ import java.util.List;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.handly.buffer.Buffer;
 import org.eclipse.handly.buffer.BufferChange;
 import org.eclipse.handly.buffer.IBuffer;
@@ -43,6 +44,7 @@ public class WorkingCopyNotificationTest
     private SimpleSourceFile sourceFile;
     private SimpleSourceConstruct aChild;
     private List<IElementChangeEvent> events;
+    private Runnable buildHook;
 
     @Override
     protected void setUp() throws Exception
@@ -62,6 +64,8 @@ public class WorkingCopyNotificationTest
             public void buildSourceStructure_(IContext context,
                 IProgressMonitor monitor) throws CoreException
             {
+                if (buildHook != null)
+                    buildHook.run();
                 SourceElementBody body = new SourceElementBody();
                 if ("A".equals(context.get(SOURCE_CONTENTS)))
                 {
@@ -170,6 +174,58 @@ public class WorkingCopyNotificationTest
         assertEvent(1, POST_CHANGE, "a.foo[-]: {WORKING COPY}");
     }
 
+    public void test5() throws Exception
+    {
+        sourceFile.becomeWorkingCopy_(EMPTY_CONTEXT, null);
+        try (IBuffer buffer = sourceFile.getBuffer_(EMPTY_CONTEXT, null))
+        {
+            assertEquals(1, events.size());
+
+            buffer.applyChange(new BufferChange(new InsertEdit(0, "A")), null);
+
+            buildHook = () ->
+            {
+                buildHook = null;
+                // the buffer is modified while the structure is being built
+                try
+                {
+                    buffer.applyChange(new BufferChange(new DeleteEdit(0,
+                        1)), null);
+                    buffer.applyChange(new BufferChange(new InsertEdit(0,
+                        "A")), null);
+                }
+                catch (CoreException e)
+                {
+                    throw new AssertionError(e);
+                }
+            };
+            try
+            {
+                sourceFile.reconcile_(of(Elements.PREEMPTIBLE_RECONCILING,
+                    true), null);
+                fail();
+            }
+            catch (OperationCanceledException e)
+            {
+            }
+            assertEquals(1, events.size()); // -> no delta for stale structure
+            assertEquals(1, sourceFile.getReconcilePreemptionCount_());
+            assertTrue(sourceFile.needsReconciling_());
+
+            sourceFile.reconcile_(of(Elements.PREEMPTIBLE_RECONCILING, true),
+                null);
+            assertEquals(2, events.size());
+            assertEvent(1, POST_RECONCILE,
+                "[Working copy] a.foo[*]: {CHILDREN | CONTENT | FINE GRAINED}\n"
+                    + "  A[+]: {}");
+            assertEquals(1, sourceFile.getReconcilePreemptionCount_());
+        }
+        finally
+        {
+            sourceFile.releaseWorkingCopy_();
+        }
+    }
+
     private void assertEvent(int index, int type, String expectedDelta)
     {
         IElementChangeEvent event = events.get(index);
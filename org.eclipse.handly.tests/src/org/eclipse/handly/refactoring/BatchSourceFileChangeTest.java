@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.refactoring;
+
+import java.io.ByteArrayInputStream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.handly.buffer.IBuffer;
+import org.eclipse.handly.junit.NoJobsWorkspaceTestCase;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.ISourceFile;
+import org.eclipse.handly.model.impl.support.SimpleModelManager;
+import org.eclipse.handly.model.impl.support.SimpleSourceFile;
+import org.eclipse.handly.snapshot.DocumentSnapshot;
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.NullChange;
+import org.eclipse.text.edits.InsertEdit;
+
+/**
+ * <code>BatchSourceFileChange</code> tests.
+ */
+public class BatchSourceFileChangeTest
+    extends NoJobsWorkspaceTestCase
+{
+    private ISourceFile sourceFile1, sourceFile2;
+    private IBuffer buffer1, buffer2;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        IProject project = setUpProject("Test001");
+        IFile file1 = project.getFile("a.foo");
+        IFile file2 = project.getFile("b.foo");
+        file2.create(new ByteArrayInputStream(new byte[0]), true, null);
+        SimpleModelManager manager = new SimpleModelManager();
+        sourceFile1 = new SimpleSourceFile(null, file1.getName(), file1,
+            manager);
+        sourceFile2 = new SimpleSourceFile(null, file2.getName(), file2,
+            manager);
+        buffer1 = Elements.getBuffer(sourceFile1);
+        buffer2 = Elements.getBuffer(sourceFile2);
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        if (buffer1 != null)
+            buffer1.release();
+        if (buffer2 != null)
+            buffer2.release();
+        super.tearDown();
+    }
+
+    public void test01() throws Exception
+    {
+        BatchSourceFileChange change = new BatchSourceFileChange("", 2);
+        change.add(new SourceFileChange("", sourceFile1, new InsertEdit(0,
+            "foo")));
+        change.add(new SourceFileChange("", sourceFile2, new InsertEdit(0,
+            "bar")));
+        assertTrue(change.isValid(null).isOK());
+        Change undoChange = change.perform(null);
+        assertEquals("foo", buffer1.getDocument().get());
+        assertEquals("bar", buffer2.getDocument().get());
+        assertFalse(buffer1.isDirty());
+        assertFalse(buffer2.isDirty());
+
+        undoChange.initializeValidationData(null);
+        assertTrue(undoChange.isValid(null).isOK());
+        undoChange.perform(null);
+        assertEquals("", buffer1.getDocument().get());
+        assertEquals("", buffer2.getDocument().get());
+        assertFalse(buffer1.isDirty());
+        assertFalse(buffer2.isDirty());
+    }
+
+    public void test02() throws Exception
+    {
+        BatchSourceFileChange change = new BatchSourceFileChange("");
+        change.add(new SourceFileChange("", sourceFile1, new InsertEdit(0,
+            "foo")));
+        SourceFileChange change2 = new SourceFileChange("", sourceFile2,
+            new InsertEdit(0, "bar"));
+        change2.setBase(new DocumentSnapshot(buffer2.getDocument()));
+        change.add(change2);
+        buffer2.getDocument().set("baz");
+        try
+        {
+            change.perform(null);
+            fail();
+        }
+        catch (CoreException e)
+        {
+        }
+        assertEquals("", buffer1.getDocument().get()); // nothing applied
+        assertEquals("baz", buffer2.getDocument().get());
+    }
+
+    public void test03()
+    {
+        BatchSourceFileChange change = new BatchSourceFileChange("");
+        try
+        {
+            change.add(new NullChange());
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2022 1C-Soft LLC.
+ * Copyright (c) 2018, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -304,6 +304,27 @@ public class SourceFileChangeTest
         assertEquals("098765", change.getPreviewContent(null));
     }
 
+    public void test11() throws Exception
+    {
+        buffer.getDocument().set("a\nb\nc\nd\n");
+
+        TextEditGroup group = new TextEditGroup("x", new ReplaceEdit(4, 1,
+            "x"));
+        SourceFileChange change = new SourceFileChange("", sourceFile);
+        change.addGroupedEdits(group);
+        TextEditBasedChangeGroup[] groups = change.getChangeGroups();
+
+        assertGroupContent(groups[0], 1, "b\nc\nd", "b\nx\nd");
+        assertGroupContent(groups[0], 1, "b\nc\nd", "b\nx\nd"); // cached
+
+        buffer.getDocument().replace(2, 1, "y");
+        assertGroupContent(groups[0], 1, "y\nc\nd", "y\nx\nd");
+
+        change.addEdit(new InsertEdit(6, "z"));
+        assertGroupContent(groups[0], 1, "y\nc\nd", "y\nx\nd");
+        assertEquals("a\ny\nx\nzd\n", change.getPreviewContent(null));
+    }
+
     private static void assertGroupContent(TextEditBasedChangeGroup group,
         int surroundingLines, String expectedCurrentContent,
         String expectedPreviewContent) throws CoreException
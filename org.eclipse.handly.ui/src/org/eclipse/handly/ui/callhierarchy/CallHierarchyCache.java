@@ -0,0 +1,447 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.ui.callhierarchy;
+
+import static org.eclipse.handly.model.IElementDeltaConstants.CHANGED;
+import static org.eclipse.handly.model.IElementDeltaConstants.F_CONTENT;
+import static org.eclipse.handly.model.IElementDeltaConstants.F_UNDERLYING_RESOURCE;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementChangeEvent;
+import org.eclipse.handly.model.IElementChangeListener;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.ISourceFile;
+import org.eclipse.handly.model.adapter.IContentAdapter;
+import org.eclipse.handly.model.adapter.NullContentAdapter;
+
+/**
+ * A cache of call hierarchy nodes. Caches the root nodes created for
+ * given input elements and a given call hierarchy kind, as well as the
+ * child nodes computed for each node, so that refreshing the view or
+ * navigating the view history does not need to recompute the hierarchy.
+ * <p>
+ * Cached children of a node are invalidated (together with all of their
+ * descendants) when a source file containing either the node's element
+ * or one of the child elements is affected by an element change event.
+ * Since a new caller may be added to any source file, the cached children
+ * of {@link CallHierarchyKind#CALLER caller} nodes are also invalidated
+ * by any event that changes the content of a source file other than
+ * a working copy, such as saving or adding a source file. Changes made
+ * in a working copy (e.g., as the user types in an editor) do not affect
+ * the cached callers until the working copy is saved.
+ * Note that it is the client responsibility to subscribe and unsubscribe
+ * the cache to change notifications in the appropriate Handly-based model(s).
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @see CallHierarchyViewPart#createHierarchyCache()
+ * @since 1.8
+ */
+public class CallHierarchyCache
+    implements IElementChangeListener
+{
+    private static final int MAX_CACHED_HIERARCHIES = 10;
+
+    private final IContentAdapter contentAdapter;
+    private final LinkedHashMap<RootsKey, ICallHierarchyNode[]> rootsCache =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<ICallHierarchyNode, Entry> childrenCache =
+        new HashMap<>();
+    // the nodes with cached children indexed by the source files of the entry
+    private final Map<ISourceFile, Set<ICallHierarchyNode>> nodesBySourceFile =
+        new HashMap<>();
+    private final Set<ICallHierarchyNode> callerNodes = new HashSet<>();
+    private long modCount;
+
+    /**
+     * Constructs a call hierarchy cache for elements that are
+     * {@link IElement}s themselves.
+     */
+    public CallHierarchyCache()
+    {
+        this(NullContentAdapter.INSTANCE);
+    }
+
+    /**
+     * Constructs a call hierarchy cache that uses the given content adapter
+     * to find out the source files containing the underlying elements of
+     * call hierarchy nodes.
+     *
+     * @param contentAdapter not <code>null</code>
+     */
+    public CallHierarchyCache(IContentAdapter contentAdapter)
+    {
+        if (contentAdapter == null)
+            throw new IllegalArgumentException();
+        this.contentAdapter = contentAdapter;
+    }
+
+    /**
+     * Returns the cached root nodes for the given input elements and
+     * the given call hierarchy kind.
+     *
+     * @param inputElements not <code>null</code>
+     * @param kind not <code>null</code>
+     * @return the cached root nodes, or <code>null</code> if none.
+     *  Clients <b>must not</b> modify the returned array.
+     */
+    public synchronized ICallHierarchyNode[] getRoots(Object[] inputElements,
+        CallHierarchyKind kind)
+    {
+        return rootsCache.get(new RootsKey(inputElements, kind));
+    }
+
+    /**
+     * Caches the given root nodes for the given input elements and
+     * the given call hierarchy kind. Only a limited number of hierarchies
+     * is retained; the least recently used ones are evicted along with
+     * the children cached for their nodes.
+     *
+     * @param inputElements not <code>null</code>
+     * @param kind not <code>null</code>
+     * @param roots not <code>null</code>. The given array <b>must not</b>
+     *  be subsequently modified
+     */
+    public synchronized void putRoots(Object[] inputElements,
+        CallHierarchyKind kind, ICallHierarchyNode[] roots)
+    {
+        if (roots == null)
+            throw new IllegalArgumentException();
+        ICallHierarchyNode[] oldRoots = rootsCache.put(new RootsKey(
+            inputElements, kind), roots);
+        if (oldRoots != null && oldRoots != roots)
+            removeSubtrees(oldRoots);
+        Iterator<ICallHierarchyNode[]> it = rootsCache.values().iterator();
+        while (rootsCache.size() > MAX_CACHED_HIERARCHIES && it.hasNext())
+        {
+            removeSubtrees(it.next());
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the cached child nodes of the given node.
+     *
+     * @param node not <code>null</code>
+     * @return the cached child nodes, or <code>null</code> if none.
+     *  Clients <b>must not</b> modify the returned array.
+     */
+    public synchronized ICallHierarchyNode[] getChildren(
+        ICallHierarchyNode node)
+    {
+        Entry entry = childrenCache.get(node);
+        if (entry == null)
+            return null;
+        return entry.children;
+    }
+
+    /**
+     * Returns the child nodes of the given node, computing them with
+     * {@link ICallHierarchyNode#getChildren(IProgressMonitor)} and caching
+     * the result if the children are not already cached. The computed
+     * children are not cached if the computation has been canceled or
+     * the cache has been invalidated while the computation was running.
+     *
+     * @param node not <code>null</code>
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if progress reporting is not desired. The caller must not rely on
+     *  {@link IProgressMonitor#done()} having been called by the receiver
+     * @return the child nodes of the given node (never <code>null</code>,
+     *  may be empty). Clients <b>must not</b> modify the returned array.
+     */
+    public ICallHierarchyNode[] getChildren(ICallHierarchyNode node,
+        IProgressMonitor monitor)
+    {
+        long stamp;
+        synchronized (this)
+        {
+            Entry entry = childrenCache.get(node);
+            if (entry != null)
+                return entry.children;
+            stamp = modCount;
+        }
+        ICallHierarchyNode[] children = node.getChildren(monitor);
+        if (monitor != null && monitor.isCanceled())
+            return children;
+        Set<ISourceFile> sourceFiles = new HashSet<>();
+        addSourceFile(node.getElement(), sourceFiles);
+        for (ICallHierarchyNode child : children)
+            addSourceFile(child.getElement(), sourceFiles);
+        synchronized (this)
+        {
+            if (stamp == modCount)
+                putEntry(node, new Entry(children, sourceFiles));
+        }
+        return children;
+    }
+
+    /**
+     * Removes the cached children of the given node, along with the children
+     * cached for all of its descendant nodes.
+     *
+     * @param node not <code>null</code>
+     */
+    public synchronized void invalidate(ICallHierarchyNode node)
+    {
+        modCount++;
+        removeSubtree(node);
+    }
+
+    /**
+     * Removes all of the cached nodes.
+     */
+    public synchronized void clear()
+    {
+        modCount++;
+        rootsCache.clear();
+        childrenCache.clear();
+        nodesBySourceFile.clear();
+        callerNodes.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation invalidates the cached children of each node
+     * whose element or child elements are contained in a source file
+     * affected by the given event. If the event changes the content of
+     * a source file other than a working copy, it also invalidates
+     * the cached children of each caller node.
+     * </p>
+     */
+    @Override
+    public void elementChanged(IElementChangeEvent event)
+    {
+        Set<IElement> affectedElements = new HashSet<>();
+        boolean contentChanged = false;
+        for (IElementDelta delta : event.getDeltas())
+        {
+            collectAffectedElements(delta, affectedElements);
+            if (!contentChanged)
+                contentChanged = hasContentChange(delta);
+        }
+        if (affectedElements.isEmpty())
+            return;
+
+        synchronized (this)
+        {
+            modCount++;
+            Set<ICallHierarchyNode> invalidNodes = new HashSet<>();
+            if (contentChanged)
+                invalidNodes.addAll(callerNodes);
+            boolean containersAffected = false;
+            for (IElement element : affectedElements)
+            {
+                if (element instanceof ISourceFile)
+                {
+                    Set<ICallHierarchyNode> nodes = nodesBySourceFile.get(
+                        element);
+                    if (nodes != null)
+                        invalidNodes.addAll(nodes);
+                }
+                else
+                    containersAffected = true;
+            }
+            if (containersAffected)
+            {
+                // rare: e.g., a folder or a project has been added or removed
+                nodesBySourceFile.forEach((sourceFile, nodes) ->
+                {
+                    if (isAffected(sourceFile, affectedElements))
+                        invalidNodes.addAll(nodes);
+                });
+            }
+            for (ICallHierarchyNode node : invalidNodes)
+                removeSubtree(node);
+        }
+    }
+
+    /**
+     * Returns the source file that contains the given element of a call
+     * hierarchy node.
+     * <p>
+     * This implementation uses the content adapter to adapt the given element
+     * to an {@link IElement} and returns the source file containing it.
+     * </p>
+     *
+     * @param element never <code>null</code>
+     * @return the source file containing the given element,
+     *  or <code>null</code> if none
+     */
+    protected ISourceFile getSourceFile(Object element)
+    {
+        return Elements.getSourceFile(contentAdapter.adapt(element));
+    }
+
+    private void addSourceFile(Object element, Set<ISourceFile> result)
+    {
+        ISourceFile sourceFile = getSourceFile(element);
+        if (sourceFile != null)
+            result.add(sourceFile);
+    }
+
+    private static void collectAffectedElements(IElementDelta delta,
+        Set<IElement> result)
+    {
+        IElement element = ElementDeltas.getElement(delta);
+        if (element instanceof ISourceFile || ElementDeltas.getKind(
+            delta) != CHANGED)
+        {
+            result.add(element);
+            return;
+        }
+        for (IElementDelta childDelta : ElementDeltas.getAffectedChildren(
+            delta))
+        {
+            collectAffectedElements(childDelta, result);
+        }
+    }
+
+    /*
+     * Returns whether the given delta adds or removes an element, or changes
+     * the content of a source file other than a working copy. Changes made
+     * in a working copy are only taken into account once it is saved.
+     */
+    private static boolean hasContentChange(IElementDelta delta)
+    {
+        if (ElementDeltas.getKind(delta) != CHANGED)
+            return true;
+        IElement element = ElementDeltas.getElement(delta);
+        long flags = ElementDeltas.getFlags(delta);
+        if (element instanceof ISourceFile)
+        {
+            if ((flags & F_UNDERLYING_RESOURCE) != 0)
+                return true;
+            return (flags & F_CONTENT) != 0 && !Elements.isWorkingCopy(
+                (ISourceFile)element);
+        }
+        if ((flags & F_CONTENT) != 0)
+            return true;
+        for (IElementDelta childDelta : ElementDeltas.getAffectedChildren(
+            delta))
+        {
+            if (hasContentChange(childDelta))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isAffected(ISourceFile sourceFile,
+        Set<IElement> affectedElements)
+    {
+        for (IElement e : Elements.getParentChain(sourceFile))
+        {
+            if (affectedElements.contains(e))
+                return true;
+        }
+        return false;
+    }
+
+    private void putEntry(ICallHierarchyNode node, Entry entry)
+    {
+        Entry oldEntry = childrenCache.put(node, entry);
+        if (oldEntry != null)
+            unindex(node, oldEntry);
+        for (ISourceFile sourceFile : entry.sourceFiles)
+            nodesBySourceFile.computeIfAbsent(sourceFile,
+                k -> new HashSet<>()).add(node);
+        if (node.getKind() == CallHierarchyKind.CALLER)
+            callerNodes.add(node);
+    }
+
+    private void unindex(ICallHierarchyNode node, Entry entry)
+    {
+        for (ISourceFile sourceFile : entry.sourceFiles)
+        {
+            Set<ICallHierarchyNode> nodes = nodesBySourceFile.get(sourceFile);
+            if (nodes != null && nodes.remove(node) && nodes.isEmpty())
+                nodesBySourceFile.remove(sourceFile);
+        }
+        callerNodes.remove(node);
+    }
+
+    private void removeSubtrees(ICallHierarchyNode[] nodes)
+    {
+        for (ICallHierarchyNode node : nodes)
+            removeSubtree(node);
+    }
+
+    private void removeSubtree(ICallHierarchyNode node)
+    {
+        Entry entry = childrenCache.remove(node);
+        if (entry != null)
+        {
+            unindex(node, entry);
+            removeSubtrees(entry.children);
+        }
+    }
+
+    private static class Entry
+    {
+        final ICallHierarchyNode[] children;
+        final Set<ISourceFile> sourceFiles;
+
+        Entry(ICallHierarchyNode[] children, Set<ISourceFile> sourceFiles)
+        {
+            this.children = children;
+            this.sourceFiles = sourceFiles;
+        }
+    }
+
+    private static class RootsKey
+    {
+        private final Object[] inputElements;
+        private final CallHierarchyKind kind;
+
+        RootsKey(Object[] inputElements, CallHierarchyKind kind)
+        {
+            if (inputElements == null)
+                throw new IllegalArgumentException();
+            if (kind == null)
+                throw new IllegalArgumentException();
+            this.inputElements = inputElements.clone();
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof RootsKey))
+                return false;
+            RootsKey other = (RootsKey)obj;
+            return kind == other.kind && Arrays.equals(inputElements,
+                other.inputElements);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * kind.hashCode() + Arrays.hashCode(inputElements);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 1C-Soft LLC.
+ * Copyright (c) 2018, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -18,13 +18,19 @@ import org.eclipse.ui.progress.IElementCollector;
 
 /**
  * Default implementation of a tree content provider for a call hierarchy.
- * Supports asynchronous fetching of children.
+ * Supports asynchronous fetching of children. Uses the view's {@link
+ * CallHierarchyViewPart#getHierarchyCache() hierarchy cache}, if any,
+ * to avoid recomputing the children of a node, and requests the view to
+ * prefetch the next level of the hierarchy for the fetched children.
  */
 public class CallHierarchyContentProvider
     extends DeferredTreeContentProvider
 {
     private static final Object[] NO_CHILDREN = new Object[0];
 
+    private final CallHierarchyViewPart viewPart;
+    private final CallHierarchyCache cache;
+
     /**
      * Constructs a call hierarchy content provider for the given
      * call hierarchy view.
@@ -34,6 +40,8 @@ public class CallHierarchyContentProvider
     public CallHierarchyContentProvider(CallHierarchyViewPart viewPart)
     {
         super(viewPart.getHierarchyViewer(), viewPart.getSite());
+        this.viewPart = viewPart;
+        this.cache = viewPart.getHierarchyCache();
     }
 
     @Override
@@ -46,7 +54,19 @@ public class CallHierarchyContentProvider
     public Object[] getChildren(Object parentElement)
     {
         if (parentElement instanceof ICallHierarchyNode)
+        {
+            if (cache != null)
+            {
+                ICallHierarchyNode[] children = cache.getChildren(
+                    (ICallHierarchyNode)parentElement);
+                if (children != null)
+                {
+                    viewPart.prefetchChildren(children);
+                    return children;
+                }
+            }
             return getDeferredTreeContentManager().getChildren(parentElement);
+        }
 
         if (parentElement instanceof ICallHierarchy)
             return ((ICallHierarchy)parentElement).getRoots();
@@ -78,9 +98,11 @@ public class CallHierarchyContentProvider
     {
         if (parentElement instanceof ICallHierarchyNode)
         {
-            ICallHierarchyNode[] children =
-                ((ICallHierarchyNode)parentElement).getChildren(monitor);
+            ICallHierarchyNode node = (ICallHierarchyNode)parentElement;
+            ICallHierarchyNode[] children = (cache != null)
+                ? cache.getChildren(node, monitor) : node.getChildren(monitor);
             collector.add(children, null);
+            viewPart.prefetchChildren(children);
         }
         collector.done();
     }
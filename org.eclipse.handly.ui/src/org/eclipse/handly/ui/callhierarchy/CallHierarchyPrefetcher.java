@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.ui.callhierarchy;
+
+import java.util.ArrayDeque;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.handly.internal.ui.Activator;
+
+/**
+ * Speculatively computes the children of call hierarchy nodes in the
+ * background and puts them into a {@link CallHierarchyCache}. Uses a bounded
+ * number of low-priority system jobs and a bounded queue of pending nodes.
+ */
+final class CallHierarchyPrefetcher
+{
+    private static final int MAX_QUEUE_SIZE = 256;
+
+    private final CallHierarchyCache cache;
+    private final PrefetchJob[] jobs;
+    private final ArrayDeque<ICallHierarchyNode> queue = new ArrayDeque<>();
+
+    /**
+     * Creates a new prefetcher for the given cache.
+     *
+     * @param cache not <code>null</code>
+     * @param maxJobs the maximum number of concurrently running jobs
+     *  (positive)
+     */
+    CallHierarchyPrefetcher(CallHierarchyCache cache, int maxJobs)
+    {
+        if (cache == null)
+            throw new IllegalArgumentException();
+        if (maxJobs < 1)
+            throw new IllegalArgumentException();
+        this.cache = cache;
+        jobs = new PrefetchJob[maxJobs];
+        for (int i = 0; i < maxJobs; i++)
+            jobs[i] = new PrefetchJob();
+    }
+
+    /**
+     * Schedules computation of the children of the given nodes. Nodes that
+     * may not have children or whose children are already cached are skipped.
+     * Nodes that do not fit into the queue are dropped.
+     *
+     * @param nodes not <code>null</code>
+     */
+    void prefetch(ICallHierarchyNode[] nodes)
+    {
+        synchronized (queue)
+        {
+            for (ICallHierarchyNode node : nodes)
+            {
+                if (queue.size() >= MAX_QUEUE_SIZE)
+                    break;
+                if (node.mayHaveChildren() && cache.getChildren(node) == null)
+                    queue.add(node);
+            }
+            if (queue.isEmpty())
+                return;
+        }
+        for (PrefetchJob job : jobs)
+            job.schedule();
+    }
+
+    /**
+     * Discards all pending nodes and cancels the running jobs.
+     */
+    void cancel()
+    {
+        synchronized (queue)
+        {
+            queue.clear();
+        }
+        for (PrefetchJob job : jobs)
+            job.cancel();
+    }
+
+    private ICallHierarchyNode poll()
+    {
+        synchronized (queue)
+        {
+            return queue.poll();
+        }
+    }
+
+    private class PrefetchJob
+        extends Job
+    {
+        PrefetchJob()
+        {
+            super(PrefetchJob.class.getName());
+            setSystem(true);
+            setPriority(DECORATE);
+        }
+
+        @Override
+        public boolean belongsTo(Object family)
+        {
+            return PrefetchJob.class.getName().equals(family);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor)
+        {
+            ICallHierarchyNode node;
+            while ((node = poll()) != null)
+            {
+                if (monitor.isCanceled())
+                    return Status.CANCEL_STATUS;
+                try
+                {
+                    cache.getChildren(node, monitor);
+                }
+                catch (OperationCanceledException e)
+                {
+                    return Status.CANCEL_STATUS;
+                }
+                catch (RuntimeException e)
+                {
+                    Activator.logError(e);
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
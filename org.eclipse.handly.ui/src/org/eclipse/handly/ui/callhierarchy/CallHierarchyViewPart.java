@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2021 1C-Soft LLC.
+ * Copyright (c) 2018, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -126,6 +126,8 @@ public abstract class CallHierarchyViewPart
     private TreeViewer hierarchyViewer;
     private TableViewer locationViewer;
     private EditorOpener editorOpener;
+    private CallHierarchyCache hierarchyCache;
+    private CallHierarchyPrefetcher prefetcher;
     private final RefreshAction refreshAction = new RefreshAction();
     private final RefreshElementAction refreshElementAction =
         new RefreshElementAction();
@@ -415,6 +417,8 @@ public abstract class CallHierarchyViewPart
      */
     public void setPinned(boolean pinned)
     {
+        if (this.pinned != pinned)
+            cancelPrefetch();
         this.pinned = pinned;
     }
 
@@ -532,6 +536,11 @@ public abstract class CallHierarchyViewPart
             }
         });
 
+        hierarchyCache = createHierarchyCache();
+        if (hierarchyCache != null && isPrefetchEnabled())
+            prefetcher = new CallHierarchyPrefetcher(hierarchyCache,
+                getMaxPrefetchJobs());
+
         pageBook = new PageBook(parent, SWT.NONE);
 
         noHierarchyPage = createNoHierarchyPage(pageBook);
@@ -646,6 +655,12 @@ public abstract class CallHierarchyViewPart
     {
         getSite().getPage().removePartListener(partListener);
 
+        if (prefetcher != null)
+            prefetcher.cancel();
+
+        if (hierarchyCache != null)
+            hierarchyCache.clear();
+
         super.dispose();
     }
 
@@ -671,8 +686,11 @@ public abstract class CallHierarchyViewPart
     /**
      * Returns the root nodes for the current call hierarchy.
      * <p>
-     * Default implementation invokes {@link #createHierarchyRoots(Object[])}
-     * with the current input elements.
+     * Default implementation returns the root nodes cached for the current
+     * input elements and hierarchy kind in the {@link #getHierarchyCache()
+     * hierarchy cache}, if any. Otherwise, it invokes {@link
+     * #createHierarchyRoots(Object[])} with the current input elements
+     * and caches the result.
      * </p>
      *
      * @return the root nodes for the current call hierarchy
@@ -680,7 +698,17 @@ public abstract class CallHierarchyViewPart
      */
     protected ICallHierarchyNode[] getHierarchyRoots()
     {
-        return createHierarchyRoots(inputElements);
+        if (hierarchyCache == null)
+            return createHierarchyRoots(inputElements);
+
+        ICallHierarchyNode[] roots = hierarchyCache.getRoots(inputElements,
+            hierarchyKind);
+        if (roots == null)
+        {
+            roots = createHierarchyRoots(inputElements);
+            hierarchyCache.putRoots(inputElements, hierarchyKind, roots);
+        }
+        return roots;
     }
 
     /**
@@ -693,6 +721,79 @@ public abstract class CallHierarchyViewPart
     protected abstract ICallHierarchyNode[] createHierarchyRoots(
         Object[] inputElements);
 
+    /**
+     * Creates and returns a cache for the call hierarchy nodes of this view.
+     * This method is called once, when the part's control is created.
+     * <p>
+     * Default implementation returns <code>null</code>, which means that
+     * the view does not cache call hierarchy nodes. Subclasses may override
+     * this method to return a {@link CallHierarchyCache}; in that case, they
+     * are responsible for subscribing the cache to change notifications in
+     * the appropriate Handly-based model(s) and for unsubscribing it when
+     * the view is disposed.
+     * </p>
+     *
+     * @return a call hierarchy cache, or <code>null</code> for no caching
+     * @since 1.8
+     */
+    protected CallHierarchyCache createHierarchyCache()
+    {
+        return null;
+    }
+
+    /**
+     * Returns the cache for the call hierarchy nodes of this view.
+     *
+     * @return the call hierarchy cache, or <code>null</code> if none
+     * @see #createHierarchyCache()
+     * @since 1.8
+     */
+    protected final CallHierarchyCache getHierarchyCache()
+    {
+        return hierarchyCache;
+    }
+
+    /**
+     * Returns whether this view should speculatively compute the next level
+     * of the call hierarchy for the nodes that become visible as a result of
+     * expanding their parent node. Prefetching is only possible if this view
+     * has a {@link #getHierarchyCache() hierarchy cache}, into which the
+     * prefetched children are put. Pending prefetch requests are canceled
+     * whenever the view is refreshed (e.g., when the input elements or the
+     * hierarchy kind change) or the pin state of the view changes.
+     * This method is called once, when the part's control is created.
+     * <p>
+     * Default implementation returns <code>true</code>.
+     * </p>
+     *
+     * @return <code>true</code> if prefetching is enabled,
+     *  and <code>false</code> otherwise
+     * @since 1.8
+     */
+    protected boolean isPrefetchEnabled()
+    {
+        return true;
+    }
+
+    /**
+     * Returns the maximum number of background jobs that may be used
+     * concurrently for prefetching the call hierarchy. This method is called
+     * once, when the part's control is created, and only if {@link
+     * #isPrefetchEnabled()} returns <code>true</code>.
+     * <p>
+     * Default implementation returns a value based on the number of available
+     * processors, but no more than 2.
+     * </p>
+     *
+     * @return the maximum number of prefetch jobs (positive)
+     * @since 1.8
+     */
+    protected int getMaxPrefetchJobs()
+    {
+        return Math.max(1, Math.min(2,
+            Runtime.getRuntime().availableProcessors() / 2));
+    }
+
     /**
      * Returns a comparator for the hierarchy viewer.
      * <p>
@@ -754,6 +855,7 @@ public abstract class CallHierarchyViewPart
      */
     protected void doRefresh(IContext context)
     {
+        cancelPrefetch();
         setContentDescription(computeContentDescription());
         hierarchyViewer.setInput(null);
         locationViewer.setInput(null);
@@ -1486,6 +1588,18 @@ public abstract class CallHierarchyViewPart
             setInputElements(NO_ELEMENTS);
     }
 
+    void prefetchChildren(ICallHierarchyNode[] nodes)
+    {
+        if (prefetcher != null)
+            prefetcher.prefetch(nodes);
+    }
+
+    private void cancelPrefetch()
+    {
+        if (prefetcher != null)
+            prefetcher.cancel();
+    }
+
     private void addHistoryEntry(HistoryEntry entry)
     {
         List<HistoryEntry> history = getHistory();
@@ -1778,7 +1892,11 @@ public abstract class CallHierarchyViewPart
                 {
                     Object e = it.next();
                     if (e instanceof ICallHierarchyNode)
+                    {
+                        if (hierarchyCache != null)
+                            hierarchyCache.invalidate((ICallHierarchyNode)e);
                         ((ICallHierarchyNode)e).refresh();
+                    }
                     hierarchyViewer.refresh(e);
                 }
             }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2021 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,6 +12,10 @@
  *******************************************************************************/
 package org.eclipse.handly.ui.quickoutline;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
@@ -44,6 +48,10 @@ public abstract class FilteringOutlinePopup
 {
     private Text filterText;
     private Predicate<Object> patternMatcher;
+    private String patternString;
+    private boolean narrowing;
+    private final PatternBasedFilter patternBasedFilter =
+        new PatternBasedFilter();
     private Composite viewMenuButtonComposite;
 
     /**
@@ -60,7 +68,7 @@ public abstract class FilteringOutlinePopup
         super.init(host, invokingKeyStroke);
         TreeViewer treeViewer = getTreeViewer();
         treeViewer.setExpandPreCheckFilters(true);
-        treeViewer.addFilter(new PatternBasedFilter());
+        treeViewer.addFilter(patternBasedFilter);
     }
 
     /**
@@ -202,13 +210,32 @@ public abstract class FilteringOutlinePopup
      * Updates the current pattern matcher to an instance {@link
      * #createPatternMatcher(String) created} for the given pattern
      * and {@link #patternMatcherUpdated() notifies} of the update.
+     * <p>
+     * If the given pattern {@link #isNarrowing(String, String) narrows}
+     * the previous pattern, a text that did not match the previous pattern
+     * is known not to match the given pattern either, and the elements
+     * that did not pass the filter for the previous pattern are not
+     * brought back into the tree.
+     * </p>
      *
      * @param pattern the pattern string (not <code>null</code>)
      * @see #getPatternMatcher()
      */
     protected final void updatePatternMatcher(String pattern)
     {
+        Predicate<Object> oldPatternMatcher = patternMatcher;
+        String oldPattern = patternString;
         patternMatcher = createPatternMatcher(pattern);
+        patternString = pattern;
+        narrowing = oldPatternMatcher != null && patternMatcher != null
+            && isNarrowing(oldPattern, pattern);
+        if (narrowing && oldPatternMatcher instanceof ElementMatcher
+            && patternMatcher instanceof ElementMatcher)
+        {
+            ((ElementMatcher)patternMatcher).inheritMismatches(
+                (ElementMatcher)oldPatternMatcher);
+        }
+        patternBasedFilter.reset();
         patternMatcherUpdated();
     }
 
@@ -238,12 +265,40 @@ public abstract class FilteringOutlinePopup
             pattern.toLowerCase().equals(pattern)));
     }
 
+    /**
+     * Returns whether every element that matches the new pattern is known
+     * to match the old pattern too. If so, the pattern-based filter needs
+     * to consider only the elements that passed the filter for the old
+     * pattern, which makes filtering incremental as the user types.
+     * <p>
+     * This implementation returns <code>true</code> if, and only if,
+     * the new pattern starts with the old pattern. This is consistent with
+     * the semantics of the default {@link #createPatternMatcher(String)}
+     * implementation. Subclasses that change the semantics of pattern
+     * matching may need to override this method.
+     * </p>
+     *
+     * @param oldPattern the old pattern string (never <code>null</code>)
+     * @param newPattern the new pattern string (never <code>null</code>)
+     * @return <code>true</code> if the new pattern narrows the old pattern,
+     *  and <code>false</code> otherwise
+     * @since 1.8
+     */
+    protected boolean isNarrowing(String oldPattern, String newPattern)
+    {
+        return newPattern.startsWith(oldPattern);
+    }
+
     /**
      * Notifies that the pattern matcher has been updated.
      * <p>
      * This implementation refreshes the tree viewer, expands all nodes
      * of the tree, and {@link #selectFirstMatch() selects} the first
-     * matching element.
+     * matching element. If the new pattern {@link #isNarrowing(String,
+     * String) narrows} the previous pattern and the tree viewer is a
+     * {@link FilteringOutlineTreeViewer}, it only removes the elements
+     * that no longer pass the filter from the tree instead of refreshing
+     * and expanding the whole tree.
      * </p>
      */
     protected void patternMatcherUpdated()
@@ -252,8 +307,13 @@ public abstract class FilteringOutlinePopup
         try
         {
             treeViewer.getControl().setRedraw(false);
-            treeViewer.refresh();
-            treeViewer.expandAll();
+            if (narrowing && treeViewer instanceof FilteringOutlineTreeViewer)
+                ((FilteringOutlineTreeViewer)treeViewer).removeFilteredItems();
+            else
+            {
+                treeViewer.refresh();
+                treeViewer.expandAll();
+            }
         }
         finally
         {
@@ -416,6 +476,54 @@ public abstract class FilteringOutlinePopup
                 return true;
             return super.canExpand(item);
         }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * <code>FilteringOutlineTreeViewer</code> extends this method to
+         * discard the results of the pattern-based filter remembered for
+         * the elements, since the elements or their labels may have changed.
+         * </p>
+         */
+        @Override
+        protected void internalRefresh(Object element, boolean updateLabels)
+        {
+            patternBasedFilter.reset();
+            super.internalRefresh(element, updateLabels);
+        }
+
+        /*
+         * Removes the elements that do not pass the pattern-based filter
+         * from the tree. Unlike a refresh, neither updates the labels of
+         * the remaining elements nor changes their expanded state.
+         */
+        void removeFilteredItems()
+        {
+            removeFilteredItems(getRoot(), getTree().getItems());
+        }
+
+        private void removeFilteredItems(Object parent, TreeItem[] items)
+        {
+            List<Object> filtered = new ArrayList<>();
+            for (TreeItem item : items)
+            {
+                Object element = item.getData();
+                if (element == null)
+                    continue; // a dummy item of a collapsed node
+                if (!patternBasedFilter.select(this, parent, element))
+                    filtered.add(element);
+                else
+                    removeFilteredItems(element, item.getItems());
+            }
+            if (!filtered.isEmpty())
+            {
+                Object parentOrTreePath = parent;
+                if (items.length > 0 && items[0].getParentItem() != null)
+                    parentOrTreePath = getTreePathFromItem(
+                        items[0].getParentItem());
+                remove(parentOrTreePath, filtered.toArray());
+            }
+        }
     }
 
     /**
@@ -427,9 +535,13 @@ public abstract class FilteringOutlinePopup
         implements Predicate<Object>
     {
         private final Predicate<String> stringMatcher;
+        private final Map<String, Boolean> results = new HashMap<>();
 
         /**
          * Creates a new element matcher based on the given string matcher.
+         * The element matcher remembers the result of matching each text
+         * obtained for the elements, so that the string matcher is invoked
+         * only once for equal texts.
          *
          * @param stringMatcher not <code>null</code>
          */
@@ -445,7 +557,30 @@ public abstract class FilteringOutlinePopup
         {
             if (element == null)
                 return false;
-            return stringMatcher.test(getText(element));
+            String text = getText(element);
+            if (text == null)
+                return stringMatcher.test(null);
+            Boolean result = results.get(text);
+            if (result == null)
+            {
+                result = stringMatcher.test(text);
+                results.put(text, result);
+            }
+            return result;
+        }
+
+        /*
+         * Remembers that the texts that did not match for the given matcher
+         * do not match for this matcher either. Must only be called if the
+         * pattern of this matcher narrows the pattern of the given matcher.
+         */
+        void inheritMismatches(ElementMatcher matcher)
+        {
+            for (Map.Entry<String, Boolean> e : matcher.results.entrySet())
+            {
+                if (!e.getValue())
+                    results.put(e.getKey(), false);
+            }
         }
 
         /**
@@ -481,8 +616,11 @@ public abstract class FilteringOutlinePopup
     protected static class StringMatcher
         implements Predicate<String>
     {
+        private static final String SPECIAL_CHARS = "*?()[]{}.+^$|\\"; //$NON-NLS-1$
+
         private final String expression;
         private final boolean ignoreCase;
+        private final String prefix;
         private Pattern pattern;
 
         /**
@@ -497,6 +635,10 @@ public abstract class FilteringOutlinePopup
         {
             this.expression = translatePattern(pattern);
             this.ignoreCase = ignoreCase;
+            // plain prefix patterns are matched without using regex,
+            // unless a subclass might have changed the translation
+            this.prefix = getClass() == StringMatcher.class ? getPlainPrefix(
+                pattern) : null;
         }
 
         @Override
@@ -504,6 +646,9 @@ public abstract class FilteringOutlinePopup
         {
             if (text == null)
                 return false;
+            if (prefix != null)
+                return text.regionMatches(ignoreCase, 0, prefix, 0,
+                    prefix.length());
             return getPattern().matcher(text).find();
         }
 
@@ -533,6 +678,19 @@ public abstract class FilteringOutlinePopup
             return expression;
         }
 
+        private static String getPlainPrefix(String pattern)
+        {
+            int end = pattern.length();
+            while (end > 0 && pattern.charAt(end - 1) == '*')
+                end--;
+            for (int i = 0; i < end; i++)
+            {
+                if (SPECIAL_CHARS.indexOf(pattern.charAt(i)) >= 0)
+                    return null;
+            }
+            return pattern.substring(0, end);
+        }
+
         private Pattern getPattern()
         {
             if (pattern == null)
@@ -550,6 +708,14 @@ public abstract class FilteringOutlinePopup
     private class PatternBasedFilter
         extends ViewerFilter
     {
+        // the results for the current pattern until the tree is refreshed
+        private final Map<Object, Boolean> results = new HashMap<>();
+
+        void reset()
+        {
+            results.clear();
+        }
+
         @Override
         public boolean select(Viewer viewer, Object parentElement,
             Object element)
@@ -557,10 +723,14 @@ public abstract class FilteringOutlinePopup
             if (patternMatcher == null)
                 return true;
 
-            if (patternMatcher.test(element))
-                return true;
+            Boolean result = results.get(element);
+            if (result != null)
+                return result;
 
-            return hasUnfilteredChild((TreeViewer)viewer, element);
+            result = patternMatcher.test(element) || hasUnfilteredChild(
+                (TreeViewer)viewer, element);
+            results.put(element, result);
+            return result;
         }
 
         private boolean hasUnfilteredChild(TreeViewer treeViewer,
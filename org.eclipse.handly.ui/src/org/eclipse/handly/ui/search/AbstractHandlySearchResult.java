@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 1C-Soft LLC.
+ * Copyright (c) 2018, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -15,11 +15,17 @@ package org.eclipse.handly.ui.search;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.handly.internal.ui.Activator;
 import org.eclipse.handly.model.Elements;
 import org.eclipse.handly.model.IElement;
@@ -319,6 +325,81 @@ public abstract class AbstractHandlySearchResult
         }
     }
 
+    /**
+     * Indexes a number of containment contexts, so that it can be determined
+     * whether an element is contained in any of the contexts in time that
+     * depends on the depth of the element, rather than on the number of
+     * the contexts.
+     * <p>
+     * The semantics of the lookup is equivalent to that of {@link
+     * ContainmentAdapter#contains(ContainmentContext, Object)} applied
+     * to each of the indexed contexts.
+     * </p>
+     */
+    static final class ContainmentIndex
+    {
+        private final Map<IElement, List<IElement>> elements = new HashMap<>();
+        private final Set<IPath> allResourcePaths = new HashSet<>();
+        private final Set<IPath> resourceOnlyPaths = new HashSet<>();
+
+        ContainmentIndex(Iterable<ContainmentContext> contexts)
+        {
+            for (ContainmentContext context : contexts)
+            {
+                if (context.element != null)
+                {
+                    elements.computeIfAbsent(context.element,
+                        k -> new ArrayList<>(1)).add(context.element);
+                }
+                if (context.resource != null)
+                {
+                    IPath path = context.resource.getFullPath();
+                    allResourcePaths.add(path);
+                    if (context.element == null)
+                        resourceOnlyPaths.add(path);
+                }
+            }
+        }
+
+        boolean isEmpty()
+        {
+            return elements.isEmpty() && allResourcePaths.isEmpty();
+        }
+
+        boolean containsElement(IElement element)
+        {
+            if (elements.isEmpty())
+                return false;
+            for (IElement e : Elements.getParentChain(element))
+            {
+                List<IElement> candidates = elements.get(e);
+                if (candidates != null)
+                {
+                    for (IElement candidate : candidates)
+                    {
+                        if (Elements.equalsAndSameParentChain(candidate, e))
+                            return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        boolean containsResource(IPath path, boolean includeElementContexts)
+        {
+            Set<IPath> paths = includeElementContexts ? allResourcePaths
+                : resourceOnlyPaths;
+            if (paths.isEmpty())
+                return false;
+            for (int i = path.segmentCount(); i >= 0; i--)
+            {
+                if (paths.contains(path.uptoSegment(i)))
+                    return true;
+            }
+            return false;
+        }
+    }
+
     static final class ContainmentAdapter
     {
         private final IContentAdapter contentAdapter;
@@ -357,15 +438,26 @@ public abstract class AbstractHandlySearchResult
             return false;
         }
 
-        boolean isContainedInAnyOf(Object element,
-            Iterable<ContainmentContext> contexts)
+        boolean isContainedInAnyOf(Object element, ContainmentIndex index)
         {
-            for (ContainmentContext context : contexts)
+            if (element instanceof IResource)
             {
-                if (contains(context, element))
-                    return true;
+                IPath path = ((IResource)element).getFullPath();
+                return index.containsResource(path, true);
             }
-            return false;
+
+            IElement adapterElement = contentAdapter.adapt(element);
+            if (adapterElement == null)
+                return false;
+
+            if (index.containsElement(adapterElement))
+                return true;
+
+            IResource resource = Elements.getResource(adapterElement);
+            if (resource == null)
+                return false;
+
+            return index.containsResource(resource.getFullPath(), false);
         }
 
         boolean exists(Object element)
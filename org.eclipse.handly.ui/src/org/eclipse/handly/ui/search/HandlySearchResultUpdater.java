@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 1C-Soft LLC.
+ * Copyright (c) 2018, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -21,16 +21,23 @@ import static org.eclipse.handly.model.IElementDeltaConstants.REMOVED;
 import static org.eclipse.handly.ui.search.AbstractHandlySearchResult.into;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.handly.model.ElementDeltas;
 import org.eclipse.handly.model.Elements;
 import org.eclipse.handly.model.IElement;
 import org.eclipse.handly.model.IElementChangeEvent;
 import org.eclipse.handly.model.IElementChangeListener;
 import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.search.ui.text.Match;
 
 /**
  * An {@link IElementChangeListener} that updates the content of the managed
@@ -41,8 +48,13 @@ import org.eclipse.handly.model.IElementDelta;
 public class HandlySearchResultUpdater
     implements IElementChangeListener
 {
+    private static final Match[] NO_MATCHES = new Match[0];
+
     private final ListenerList<AbstractHandlySearchResult> searchResults =
         new ListenerList<>(IDENTITY);
+    private final List<AbstractHandlySearchResult.ContainmentContext> pendingRemovals =
+        new ArrayList<>();
+    private final UpdateJob updateJob = new UpdateJob();
 
     /**
      * Adds a search result to this updater. Has no effect if an identical
@@ -70,7 +82,10 @@ public class HandlySearchResultUpdater
      * {@inheritDoc}
      * <p>
      * This implementation updates the managed search results by removing
-     * matches for elements that ceased to exist.
+     * matches for elements that ceased to exist. The potential removals are
+     * collected from the event in the notifying thread, but the search results
+     * are updated asynchronously in a background job; removals collected from
+     * several consecutive events may be processed in a single batch.
      * </p>
      */
     @Override
@@ -84,7 +99,13 @@ public class HandlySearchResultUpdater
             collectRemovals(delta, into(removals));
         }
         if (!removals.isEmpty())
-            processRemovals(removals);
+        {
+            synchronized (pendingRemovals)
+            {
+                pendingRemovals.addAll(removals);
+            }
+            updateJob.schedule();
+        }
     }
 
     /**
@@ -179,24 +200,62 @@ public class HandlySearchResultUpdater
         }
     }
 
-    private void processRemovals(
-        Iterable<AbstractHandlySearchResult.ContainmentContext> removals)
+    private void processPendingRemovals(IProgressMonitor monitor)
     {
+        AbstractHandlySearchResult.ContainmentIndex removals;
+        synchronized (pendingRemovals)
+        {
+            removals = new AbstractHandlySearchResult.ContainmentIndex(
+                pendingRemovals);
+            pendingRemovals.clear();
+        }
+        if (removals.isEmpty())
+            return;
+
         for (AbstractHandlySearchResult searchResult : searchResults)
         {
             AbstractHandlySearchResult.ContainmentAdapter containmentAdapter =
                 new AbstractHandlySearchResult.ContainmentAdapter(
                     searchResult.getContentAdapter());
+            ArrayList<Match> matchesToRemove = new ArrayList<>();
             Object[] elements = searchResult.getElements();
             for (Object element : elements)
             {
+                if (monitor.isCanceled())
+                    return;
+
                 if (containmentAdapter.isContainedInAnyOf(element, removals)
                     && !containmentAdapter.exists(element))
                 {
-                    searchResult.removeMatches(searchResult.getMatches(
-                        element));
+                    matchesToRemove.addAll(Arrays.asList(
+                        searchResult.getMatches(element)));
                 }
             }
+            if (!matchesToRemove.isEmpty())
+                searchResult.removeMatches(matchesToRemove.toArray(NO_MATCHES));
+        }
+    }
+
+    private class UpdateJob
+        extends Job
+    {
+        UpdateJob()
+        {
+            super(UpdateJob.class.getName());
+            setSystem(true);
+        }
+
+        @Override
+        public boolean belongsTo(Object family)
+        {
+            return UpdateJob.class.getName().equals(family);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor)
+        {
+            processPendingRemovals(monitor);
+            return Status.OK_STATUS;
         }
     }
 }
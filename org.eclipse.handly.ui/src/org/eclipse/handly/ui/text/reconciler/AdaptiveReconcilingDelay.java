@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.ui.text.reconciler;
+
+/**
+ * Computes the delay a reconciler waits after a document change before
+ * reconciling the document, based on the measured cost of recent reconciles,
+ * the size of the document, and the typing cadence.
+ * <p>
+ * The delay is chosen to be long enough for reconciling to happen in typing
+ * pauses rather than between keystrokes, and for reconciling to take a
+ * bounded share of the time. It is computed as the maximum of the predicted
+ * reconcile cost (an exponentially weighted moving average of the recent
+ * reconcile cost per character, multiplied by the current document length)
+ * multiplied by a cost factor, and an exponentially weighted moving average
+ * of the recent intervals between document changes multiplied by a cadence
+ * factor. The result is then clamped to the configured bounds.
+ * </p>
+ * <p>
+ * The reconciler must notify the policy of each document change via
+ * {@link #documentChanged(int)} and of each completed reconcile via
+ * {@link #reconciled(long, int)}. The policy also maintains some metrics,
+ * such as the number of reconciles and the number of document changes that
+ * did not cause a reconcile of their own because they were coalesced with
+ * subsequent changes.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @see WorkingCopyReconciler#setAdaptiveDelay(AdaptiveReconcilingDelay)
+ * @since 1.8
+ */
+public class AdaptiveReconcilingDelay
+{
+    /**
+     * The default minimum delay, in milliseconds.
+     */
+    public static final int DEFAULT_MIN_DELAY = 100;
+
+    /**
+     * The default maximum delay, in milliseconds.
+     */
+    public static final int DEFAULT_MAX_DELAY = 2000;
+
+    /**
+     * The default initial delay, in milliseconds; used until the first
+     * reconcile has been measured.
+     */
+    public static final int DEFAULT_INITIAL_DELAY = 500;
+
+    private static final double ALPHA = 0.3; // EWMA smoothing factor
+    private static final double COST_FACTOR = 2;
+    private static final double CADENCE_FACTOR = 1.5;
+
+    private final int minDelay;
+    private final int maxDelay;
+    private double costPerChar = -1; // EWMA, in milliseconds; -1 if unknown
+    private double changeInterval = -1; // EWMA, in milliseconds; -1 if unknown
+    private long lastChangeTime; // in nanoseconds
+    private boolean hasLastChangeTime;
+    private int documentLength;
+    private int delay;
+    private int pendingChangeCount;
+    private long changeCount;
+    private long reconcileCount;
+    private long skippedCount;
+    private double reconcileTime = -1; // EWMA, in milliseconds; -1 if unknown
+
+    /**
+     * Creates a new adaptive reconciling delay policy with the default bounds.
+     *
+     * @see #DEFAULT_MIN_DELAY
+     * @see #DEFAULT_MAX_DELAY
+     */
+    public AdaptiveReconcilingDelay()
+    {
+        this(DEFAULT_MIN_DELAY, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Creates a new adaptive reconciling delay policy with the given bounds.
+     *
+     * @param minDelay the minimum delay in milliseconds (non-negative)
+     * @param maxDelay the maximum delay in milliseconds
+     *  (not less than <code>minDelay</code>)
+     */
+    public AdaptiveReconcilingDelay(int minDelay, int maxDelay)
+    {
+        if (minDelay < 0 || maxDelay < minDelay)
+            throw new IllegalArgumentException();
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.delay = clamp(DEFAULT_INITIAL_DELAY);
+    }
+
+    /**
+     * Returns the minimum delay.
+     *
+     * @return the minimum delay in milliseconds
+     */
+    public int getMinDelay()
+    {
+        return minDelay;
+    }
+
+    /**
+     * Returns the maximum delay.
+     *
+     * @return the maximum delay in milliseconds
+     */
+    public int getMaxDelay()
+    {
+        return maxDelay;
+    }
+
+    /**
+     * Returns the currently chosen delay.
+     *
+     * @return the current delay in milliseconds
+     *  (between the minimum and the maximum delay)
+     */
+    public synchronized int getDelay()
+    {
+        return delay;
+    }
+
+    /**
+     * Notifies that the document has changed.
+     *
+     * @param documentLength the length of the document after the change
+     */
+    public synchronized void documentChanged(int documentLength)
+    {
+        long now = System.nanoTime();
+        if (hasLastChangeTime)
+        {
+            double interval = (now - lastChangeTime) / 1e6;
+            if (interval < maxDelay) // longer intervals are pauses, not typing
+                changeInterval = average(changeInterval, interval);
+        }
+        lastChangeTime = now;
+        hasLastChangeTime = true;
+        this.documentLength = documentLength;
+        pendingChangeCount++;
+        changeCount++;
+        updateDelay();
+    }
+
+    /**
+     * Notifies that the document has been reconciled. Should not be called
+     * if reconciling has been canceled.
+     *
+     * @param duration the time taken by the reconcile in milliseconds
+     * @param documentLength the length of the reconciled document
+     */
+    public synchronized void reconciled(long duration, int documentLength)
+    {
+        if (duration < 0)
+            duration = 0;
+        reconcileTime = average(reconcileTime, duration);
+        costPerChar = average(costPerChar, (double)duration / Math.max(
+            documentLength, 1));
+        this.documentLength = documentLength;
+        if (pendingChangeCount > 1)
+            skippedCount += pendingChangeCount - 1;
+        pendingChangeCount = 0;
+        reconcileCount++;
+        updateDelay();
+    }
+
+    /**
+     * Returns the number of reconciles this policy has been notified of.
+     *
+     * @return the number of reconciles
+     */
+    public synchronized long getReconcileCount()
+    {
+        return reconcileCount;
+    }
+
+    /**
+     * Returns the number of document changes this policy has been
+     * notified of.
+     *
+     * @return the number of document changes
+     */
+    public synchronized long getChangeCount()
+    {
+        return changeCount;
+    }
+
+    /**
+     * Returns the number of reconciles that were skipped, i.e. the number
+     * of document changes that did not cause a reconcile of their own
+     * because they were coalesced with subsequent changes.
+     *
+     * @return the number of skipped reconciles
+     */
+    public synchronized long getSkippedCount()
+    {
+        return skippedCount;
+    }
+
+    /**
+     * Returns the exponentially weighted moving average of the time
+     * taken by recent reconciles.
+     *
+     * @return the average reconcile time in milliseconds,
+     *  or <code>-1</code> if unknown
+     */
+    public synchronized double getAverageReconcileTime()
+    {
+        return reconcileTime;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("AdaptiveReconcilingDelay [delay="); //$NON-NLS-1$
+        sb.append(delay);
+        sb.append(", reconciles="); //$NON-NLS-1$
+        sb.append(reconcileCount);
+        sb.append(", skipped="); //$NON-NLS-1$
+        sb.append(skippedCount);
+        sb.append(", averageReconcileTime="); //$NON-NLS-1$
+        sb.append(reconcileTime);
+        sb.append(']');
+        return sb.toString();
+    }
+
+    private void updateDelay()
+    {
+        if (costPerChar < 0)
+            return; // keep the initial delay until a reconcile is measured
+        double value = COST_FACTOR * costPerChar * documentLength;
+        if (changeInterval >= 0)
+            value = Math.max(value, CADENCE_FACTOR * changeInterval);
+        delay = clamp((int)Math.min(value, Integer.MAX_VALUE));
+    }
+
+    private int clamp(int value)
+    {
+        return Math.max(minDelay, Math.min(maxDelay, value));
+    }
+
+    private static double average(double average, double value)
+    {
+        if (average < 0)
+            return value;
+        return ALPHA * value + (1 - ALPHA) * average;
+    }
+}
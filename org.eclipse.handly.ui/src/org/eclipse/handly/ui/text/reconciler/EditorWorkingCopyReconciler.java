@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2021 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -21,6 +21,7 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IPartListener;
+import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.IWorkbenchPartSite;
 import org.eclipse.ui.IWorkbenchWindow;
@@ -121,6 +122,27 @@ public abstract class EditorWorkingCopyReconciler
         super.uninstall();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation returns {@link ReconcileScheduler#PRIORITY_ACTIVE}
+     * if the reconciler's editor is the active part, {@link
+     * ReconcileScheduler#PRIORITY_VISIBLE} if the editor is visible, and
+     * {@link ReconcileScheduler#PRIORITY_OTHER} otherwise.
+     * </p>
+     * @since 1.8
+     */
+    @Override
+    protected int computeSchedulingPriority()
+    {
+        IWorkbenchPage page = editor.getSite().getPage();
+        if (page.getActivePart() == editor)
+            return ReconcileScheduler.PRIORITY_ACTIVE;
+        if (page.isPartVisible(editor))
+            return ReconcileScheduler.PRIORITY_VISIBLE;
+        return ReconcileScheduler.PRIORITY_OTHER;
+    }
+
     /**
      * Returns the mutex for this reconciler. See <a
      * href="https://bugs.eclipse.org/bugs/show_bug.cgi?id=66176">Bug 66176</a>
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.ui.text.reconciler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Coordinates reconciling across multiple reconcilers, such as the
+ * reconcilers of all open editors, so that a global change that causes
+ * every reconciler to reconcile does not saturate the CPU.
+ * <p>
+ * A reconciler {@link #acquire(Object, IntSupplier, IProgressMonitor)
+ * acquires} a slot from the scheduler before reconciling and {@link
+ * #release() releases} it afterwards. At most a bounded number of slots
+ * may be held at any given time; the other reconcilers wait and are then
+ * admitted in order of their priority: the reconciler of the active editor
+ * first, then the reconcilers of visible editors, and then the rest.
+ * Duplicate requests for the same key (e.g., the same working copy) are
+ * collapsed: while a request for a key is waiting, another request for
+ * that key is not admitted, since the waiting request will cover it.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @see WorkingCopyReconciler#setScheduler(ReconcileScheduler)
+ * @since 1.8
+ */
+public final class ReconcileScheduler
+{
+    /**
+     * Priority of a reconcile request for the active editor.
+     */
+    public static final int PRIORITY_ACTIVE = 2;
+
+    /**
+     * Priority of a reconcile request for a visible editor.
+     */
+    public static final int PRIORITY_VISIBLE = 1;
+
+    /**
+     * Priority of a reconcile request for any other editor.
+     */
+    public static final int PRIORITY_OTHER = 0;
+
+    private static ReconcileScheduler defaultInstance;
+
+    private final int maxRunning;
+    private int running;
+    private final List<Request> waiting = new ArrayList<>();
+    private long sequence;
+
+    /**
+     * Returns the shared scheduler instance. The number of reconciles it
+     * allows to run concurrently is based on the number of available
+     * processors.
+     *
+     * @return the shared scheduler instance (never <code>null</code>)
+     */
+    public static synchronized ReconcileScheduler getDefault()
+    {
+        if (defaultInstance == null)
+            defaultInstance = new ReconcileScheduler(Math.max(1, Math.min(4,
+                Runtime.getRuntime().availableProcessors() / 2)));
+        return defaultInstance;
+    }
+
+    /**
+     * Creates a new scheduler that allows at most the given number
+     * of reconciles to run concurrently.
+     *
+     * @param maxRunning the maximum number of concurrent reconciles
+     *  (positive)
+     */
+    public ReconcileScheduler(int maxRunning)
+    {
+        if (maxRunning < 1)
+            throw new IllegalArgumentException();
+        this.maxRunning = maxRunning;
+    }
+
+    /**
+     * Returns the maximum number of concurrent reconciles allowed
+     * by this scheduler.
+     *
+     * @return the maximum number of concurrent reconciles
+     */
+    public int getMaxRunning()
+    {
+        return maxRunning;
+    }
+
+    /**
+     * Waits until a reconcile for the given key may run. When a slot becomes
+     * available, the waiting request with the highest priority is admitted;
+     * requests with the same priority are admitted in the order they were
+     * made. The priority of a waiting request is reevaluated each time
+     * a slot becomes available.
+     * <p>
+     * If there is already a request for the given key waiting to be
+     * admitted, this method returns <code>false</code> immediately without
+     * acquiring a slot; the caller should skip reconciling. Otherwise, when
+     * this method returns <code>true</code>, the caller must make sure to
+     * {@link #release() release} the slot when finished reconciling.
+     * </p>
+     *
+     * @param key the key identifying what is going to be reconciled,
+     *  e.g. the working copy (not <code>null</code>)
+     * @param priority supplies the current priority of the request
+     *  (not <code>null</code>). May be called in any thread
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if cancellation is not desired
+     * @return <code>true</code> if a slot has been acquired, and
+     *  <code>false</code> if the request has been collapsed with
+     *  another request for the same key
+     * @throws OperationCanceledException if the monitor is canceled
+     *  while waiting
+     */
+    public synchronized boolean acquire(Object key, IntSupplier priority,
+        IProgressMonitor monitor)
+    {
+        if (key == null)
+            throw new IllegalArgumentException();
+        if (priority == null)
+            throw new IllegalArgumentException();
+        for (Request request : waiting)
+        {
+            if (request.key.equals(key))
+                return false;
+        }
+        if (running < maxRunning && waiting.isEmpty())
+        {
+            running++;
+            return true;
+        }
+        Request request = new Request(key, priority, sequence++);
+        waiting.add(request);
+        try
+        {
+            while (running >= maxRunning || next() != request)
+            {
+                if (monitor != null && monitor.isCanceled())
+                    throw new OperationCanceledException();
+                try
+                {
+                    wait(100);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new OperationCanceledException();
+                }
+            }
+            running++;
+            return true;
+        }
+        finally
+        {
+            waiting.remove(request);
+            notifyAll(); // the next request may now be admitted
+        }
+    }
+
+    /**
+     * Releases a slot previously acquired via {@link #acquire(Object,
+     * IntSupplier, IProgressMonitor)}.
+     */
+    public synchronized void release()
+    {
+        if (running <= 0)
+            throw new IllegalStateException();
+        running--;
+        notifyAll();
+    }
+
+    private Request next()
+    {
+        Request result = null;
+        int resultPriority = 0;
+        for (Request request : waiting)
+        {
+            int priority = request.priority.getAsInt();
+            if (result == null || priority > resultPriority
+                || (priority == resultPriority
+                    && request.sequence < result.sequence))
+            {
+                result = request;
+                resultPriority = priority;
+            }
+        }
+        return result;
+    }
+
+    private static class Request
+    {
+        final Object key;
+        final IntSupplier priority;
+        final long sequence;
+
+        Request(Object key, IntSupplier priority, long sequence)
+        {
+            this.key = key;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2021 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -23,6 +23,7 @@ import java.util.function.Function;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IMarkerDelta;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.handly.model.ElementDeltas;
 import org.eclipse.handly.model.IElement;
 import org.eclipse.handly.model.IElementChangeEvent;
@@ -58,6 +59,11 @@ public abstract class WorkingCopyReconciler
     private volatile boolean active = true;
     private volatile boolean modelChanged = false;
     private volatile boolean initialProcessDone = false;
+    private volatile AdaptiveReconcilingDelay adaptiveDelay;
+    private volatile boolean forcingReconcile;
+    private volatile ReconcileScheduler scheduler;
+    private volatile int schedulingPriority = ReconcileScheduler.PRIORITY_OTHER;
+    private volatile boolean forcedReconcilePending;
     private final IElementChangeListener elementChangeListener =
         new IElementChangeListener()
         {
@@ -129,6 +135,67 @@ public abstract class WorkingCopyReconciler
         }
     }
 
+    /**
+     * Sets the policy that is to be used by this reconciler to adapt the
+     * delay between a document change and reconciling. If the policy is
+     * <code>null</code>, the delay set via {@link #setDelay(int)} is used.
+     * <p>
+     * By default, there is no adaptive delay policy.
+     * </p>
+     *
+     * @param adaptiveDelay the adaptive delay policy, or <code>null</code>
+     * @since 1.8
+     */
+    public void setAdaptiveDelay(AdaptiveReconcilingDelay adaptiveDelay)
+    {
+        this.adaptiveDelay = adaptiveDelay;
+        if (adaptiveDelay != null)
+            setDelay(adaptiveDelay.getDelay());
+    }
+
+    /**
+     * Returns the policy used by this reconciler to adapt the delay between
+     * a document change and reconciling. The policy may be queried for
+     * metrics, such as the current delay and the number of skipped reconciles.
+     *
+     * @return the adaptive delay policy, or <code>null</code> if none
+     * @since 1.8
+     */
+    public AdaptiveReconcilingDelay getAdaptiveDelay()
+    {
+        return adaptiveDelay;
+    }
+
+    /**
+     * Sets the scheduler that is to be used by this reconciler to coordinate
+     * reconciling forced by a change in the underlying model with other
+     * reconcilers. If the scheduler is <code>null</code>, forced reconciling
+     * runs without coordination.
+     * <p>
+     * By default, there is no scheduler.
+     * </p>
+     *
+     * @param scheduler the reconcile scheduler, or <code>null</code>
+     * @see ReconcileScheduler#getDefault()
+     * @since 1.8
+     */
+    public void setScheduler(ReconcileScheduler scheduler)
+    {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the scheduler used by this reconciler to coordinate reconciling
+     * forced by a change in the underlying model with other reconcilers.
+     *
+     * @return the reconcile scheduler, or <code>null</code> if none
+     * @since 1.8
+     */
+    public ReconcileScheduler getScheduler()
+    {
+        return scheduler;
+    }
+
     @Override
     public void setProgressMonitor(IProgressMonitor monitor)
     {
@@ -220,16 +287,70 @@ public abstract class WorkingCopyReconciler
         initialProcessDone = true;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If this reconciler has an {@link #getAdaptiveDelay() adaptive delay
+     * policy}, this implementation measures the time taken by the reconciling
+     * strategy, notifies the policy, and updates the delay of the reconciler
+     * according to the policy.
+     * </p>
+     * <p>
+     * If this reconciler has a {@link #getScheduler() scheduler} and the
+     * reconciling has been forced, this implementation acquires a slot from
+     * the scheduler before reconciling, using the source file as the key and
+     * the {@link #computeSchedulingPriority() scheduling priority} of this
+     * reconciler. Reconciling is skipped if the request is collapsed with
+     * a pending request for the same source file.
+     * </p>
+     */
     @Override
     protected void process(DirtyRegion dirtyRegion)
     {
+        ReconcileScheduler scheduler = this.scheduler;
+        boolean forced = forcedReconcilePending;
+        forcedReconcilePending = false;
+        ISourceFile sourceFile = getSourceFile();
+        if (scheduler == null || !forced || sourceFile == null)
+        {
+            doProcess(dirtyRegion);
+            return;
+        }
+        try
+        {
+            if (!scheduler.acquire(sourceFile, () -> schedulingPriority,
+                getProgressMonitor()))
+                return;
+        }
+        catch (OperationCanceledException e)
+        {
+            return; // the monitor is canceled, so reconciling will be retried
+        }
+        try
+        {
+            doProcess(dirtyRegion);
+        }
+        finally
+        {
+            scheduler.release();
+        }
+    }
+
+    private void doProcess(DirtyRegion dirtyRegion)
+    {
+        AdaptiveReconcilingDelay adaptiveDelay = this.adaptiveDelay;
+        long start = System.nanoTime();
+        IDocument document = getDocument();
         if (dirtyRegion != null)
             strategy.reconcile(dirtyRegion, dirtyRegion);
-        else
+        else if (document != null)
+            strategy.reconcile(new Region(0, document.getLength()));
+        if (adaptiveDelay != null && document != null
+            && !getProgressMonitor().isCanceled())
         {
-            IDocument document = getDocument();
-            if (document != null)
-                strategy.reconcile(new Region(0, document.getLength()));
+            adaptiveDelay.reconciled((System.nanoTime() - start) / 1000000,
+                document.getLength());
+            setDelay(adaptiveDelay.getDelay());
         }
     }
 
@@ -239,7 +360,36 @@ public abstract class WorkingCopyReconciler
         if (!initialProcessDone)
             return;
 
-        super.forceReconciling();
+        forcingReconcile = true;
+        forcedReconcilePending = true;
+        try
+        {
+            super.forceReconciling();
+        }
+        finally
+        {
+            forcingReconcile = false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If this reconciler has an {@link #getAdaptiveDelay() adaptive delay
+     * policy}, this implementation notifies the policy of a document change
+     * and updates the delay of the reconciler according to the policy.
+     * </p>
+     */
+    @Override
+    protected void reconcilerReset()
+    {
+        AdaptiveReconcilingDelay adaptiveDelay = this.adaptiveDelay;
+        IDocument document = getDocument();
+        if (adaptiveDelay != null && document != null && !forcingReconcile)
+        {
+            adaptiveDelay.documentChanged(document.getLength());
+            setDelay(adaptiveDelay.getDelay());
+        }
     }
 
     @Override
@@ -371,10 +521,50 @@ public abstract class WorkingCopyReconciler
         {
             setModelChanged(true);
             if (isActive())
+            {
+                updateSchedulingPriority();
                 forceReconciling();
+            }
         });
     }
 
+    /**
+     * Returns the current priority of this reconciler with regard to
+     * the {@link #getScheduler() scheduler}. This method is called
+     * in the UI thread.
+     * <p>
+     * This implementation returns {@link ReconcileScheduler#PRIORITY_VISIBLE}
+     * if the text widget of the reconciler's text viewer is visible, and
+     * {@link ReconcileScheduler#PRIORITY_OTHER} otherwise. Subclasses may
+     * override.
+     * </p>
+     *
+     * @return the current scheduling priority
+     * @since 1.8
+     */
+    protected int computeSchedulingPriority()
+    {
+        ITextViewer textViewer = getTextViewer();
+        if (textViewer == null)
+            return ReconcileScheduler.PRIORITY_OTHER;
+        Control control = textViewer.getTextWidget();
+        if (control == null || control.isDisposed() || !control.isVisible())
+            return ReconcileScheduler.PRIORITY_OTHER;
+        return ReconcileScheduler.PRIORITY_VISIBLE;
+    }
+
+    /**
+     * Updates the priority of this reconciler with regard to the {@link
+     * #getScheduler() scheduler} by {@link #computeSchedulingPriority()
+     * computing} it anew. This method can only be executed by the UI thread.
+     *
+     * @since 1.8
+     */
+    protected final void updateSchedulingPriority()
+    {
+        schedulingPriority = computeSchedulingPriority();
+    }
+
     /**
      * Returns whether this reconciler is currently active.
      *
@@ -403,6 +593,7 @@ public abstract class WorkingCopyReconciler
         if (Display.getCurrent() == null)
             throw new AssertionError(
                 "This method may only be executed by the user-interface thread"); //$NON-NLS-1$
+        updateSchedulingPriority();
         if (!active)
             setModelChanged(false);
         else if (hasModelChanged())
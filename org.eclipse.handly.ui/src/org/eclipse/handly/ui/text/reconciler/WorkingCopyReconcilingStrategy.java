@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2021 1C-Soft LLC.
+ * Copyright (c) 2015, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,12 +12,17 @@
  *******************************************************************************/
 package org.eclipse.handly.ui.text.reconciler;
 
+import static org.eclipse.handly.context.Contexts.EMPTY_CONTEXT;
+import static org.eclipse.handly.context.Contexts.of;
+import static org.eclipse.handly.model.Elements.PREEMPTIBLE_RECONCILING;
+
 import java.util.function.Function;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.handly.context.IContext;
 import org.eclipse.handly.model.Elements;
 import org.eclipse.handly.model.ISourceFile;
 import org.eclipse.handly.ui.IWorkingCopyManager;
@@ -127,7 +132,11 @@ public class WorkingCopyReconcilingStrategy
      * the last time it was reconciled.
      * <p>
      * This implementation invokes <code>Elements.{@link Elements#reconcile(ISourceFile,
-     * IProgressMonitor) reconcile}(sourceFile, monitor)</code>.
+     * IContext, IProgressMonitor) reconcile}(sourceFile, context, monitor)</code>.
+     * Since 1.8, unless this is the initial reconcile, the context specifies
+     * that reconciling is {@link Elements#PREEMPTIBLE_RECONCILING preemptible}
+     * by a subsequent modification of the buffer, since such a modification
+     * will cause another reconcile anyway.
      * </p>
      *
      * @param sourceFile never <code>null</code>
@@ -142,7 +151,8 @@ public class WorkingCopyReconcilingStrategy
     protected void reconcile(ISourceFile sourceFile, boolean initialReconcile,
         IProgressMonitor monitor) throws CoreException
     {
-        Elements.reconcile(sourceFile, monitor);
+        Elements.reconcile(sourceFile, initialReconcile ? EMPTY_CONTEXT
+            : of(PREEMPTIBLE_RECONCILING, true), monitor);
     }
 
     private void reconcile(boolean initialReconcile)
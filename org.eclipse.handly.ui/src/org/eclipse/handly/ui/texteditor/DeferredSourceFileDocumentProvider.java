@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 1C-Soft LLC.
+ * Copyright (c) 2020, 2026 1C-Soft LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -15,8 +15,10 @@ package org.eclipse.handly.ui.texteditor;
 import static org.eclipse.handly.context.Contexts.EMPTY_CONTEXT;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -42,6 +44,9 @@ public abstract class DeferredSourceFileDocumentProvider
 {
     private static final ISourceFile[] NO_SOURCE_FILES = new ISourceFile[0];
 
+    private final Map<IDocument, SourceFileInfo> sourceFileInfos =
+        new IdentityHashMap<>();
+
     /**
      * Creates a new source file document provider with no parent.
      */
@@ -87,17 +92,11 @@ public abstract class DeferredSourceFileDocumentProvider
      * or <code>null</code> if this provider does not currently manage
      * a source file for the document.
      * <p>
-     * <b>Note:</b> An implementation of this method may go through the list
-     * of source files and test whether the source file buffer's document
-     * equals the given document. Therefore, this method should not be used
-     * in performance critical code.
-     * </p>
-     * <p>
      * This implementation returns the source file retained by the file info
-     * for the given document. The file info is found by iterating over
-     * this provider's file info objects via {@link #getFileInfosIterator()}
-     * and testing whether the document of the file info's text file buffer
-     * equals the given document.
+     * for the given document. The file info is looked up in a map from
+     * the document of the file info's text file buffer to the file info,
+     * which is maintained by {@link #createFileInfo(Object)} and {@link
+     * #disposeFileInfo(Object, TextFileDocumentProvider.FileInfo)}.
      * </p>
      *
      * @param document the document for which to find the source file,
@@ -107,20 +106,16 @@ public abstract class DeferredSourceFileDocumentProvider
      */
     public ISourceFile getConnectedSourceFile(IDocument document)
     {
-        Iterator<FileInfo> it = getFileInfosIterator();
-        while (it.hasNext())
+        if (document == null)
+            return null;
+        SourceFileInfo info;
+        synchronized (sourceFileInfos)
         {
-            FileInfo info = it.next();
-            IDocument infoDocument = null;
-            if (info.fTextFileBuffer != null)
-                infoDocument = info.fTextFileBuffer.getDocument();
-            if (infoDocument != null && infoDocument.equals(document))
-            {
-                if (info instanceof SourceFileInfo)
-                    return ((SourceFileInfo)info).sourceFile;
-            }
+            info = sourceFileInfos.get(document);
         }
-        return null;
+        if (info == null)
+            return null;
+        return info.sourceFile;
     }
 
     /**
@@ -191,6 +186,7 @@ public abstract class DeferredSourceFileDocumentProvider
         if (info instanceof SourceFileInfo)
         {
             setUpSourceFileInfo(element, (SourceFileInfo)info);
+            putSourceFileInfo((SourceFileInfo)info);
         }
         return info;
     }
@@ -209,7 +205,10 @@ public abstract class DeferredSourceFileDocumentProvider
         try
         {
             if (info instanceof SourceFileInfo)
+            {
+                removeSourceFileInfo((SourceFileInfo)info);
                 disposeSourceFileInfo(element, (SourceFileInfo)info);
+            }
         }
         finally
         {
@@ -332,6 +331,49 @@ public abstract class DeferredSourceFileDocumentProvider
             releaseWorkingCopy(workingCopy, element, info);
     }
 
+    private void putSourceFileInfo(SourceFileInfo info)
+    {
+        IDocument document = getDocument(info);
+        if (document == null)
+            return;
+        synchronized (sourceFileInfos)
+        {
+            // keep the first one if there are several infos for the document
+            sourceFileInfos.putIfAbsent(document, info);
+        }
+    }
+
+    private void removeSourceFileInfo(SourceFileInfo info)
+    {
+        IDocument document = getDocument(info);
+        if (document == null)
+            return;
+        synchronized (sourceFileInfos)
+        {
+            if (!sourceFileInfos.remove(document, info))
+                return;
+        }
+        // another file info may still be connected to the same document
+        Iterator<FileInfo> it = getFileInfosIterator();
+        while (it.hasNext())
+        {
+            FileInfo other = it.next();
+            if (other != info && other instanceof SourceFileInfo
+                && getDocument(other) == document)
+            {
+                putSourceFileInfo((SourceFileInfo)other);
+                break;
+            }
+        }
+    }
+
+    private static IDocument getDocument(FileInfo info)
+    {
+        if (info.fTextFileBuffer == null)
+            return null;
+        return info.fTextFileBuffer.getDocument();
+    }
+
     /**
      * Subclass of {@link org.eclipse.ui.editors.text.TextFileDocumentProvider.FileInfo
      * FileInfo} that can retain a reference to a source file.
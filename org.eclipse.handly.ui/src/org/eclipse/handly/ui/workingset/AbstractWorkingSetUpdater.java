@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -21,14 +21,19 @@ import static org.eclipse.handly.model.IElementDeltaConstants.REMOVED;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.handly.model.ElementDeltas;
 import org.eclipse.handly.model.Elements;
 import org.eclipse.handly.model.IElement;
@@ -51,6 +56,7 @@ public abstract class AbstractWorkingSetUpdater
     implements IWorkingSetUpdater
 {
     private final List<IWorkingSet> workingSets = new ArrayList<>();
+    private final Map<IWorkingSet, WorkingSetIndex> indexes = new HashMap<>();
 
     private final IElementChangeListener listener = new IElementChangeListener()
     {
@@ -63,15 +69,26 @@ public abstract class AbstractWorkingSetUpdater
                 workingSetsCopy = workingSets.toArray(
                     new IWorkingSet[workingSets.size()]);
             }
-            for (IWorkingSet workingSet : workingSetsCopy)
+            int length = workingSetsCopy.length;
+            if (length == 0)
+                return;
+            WorkingSetDelta[] workingSetDeltas = new WorkingSetDelta[length];
+            for (int i = 0; i < length; i++)
             {
-                WorkingSetDelta workingSetDelta = new WorkingSetDelta(
-                    workingSet);
-                for (IElementDelta delta : event.getDeltas())
-                {
-                    processElementDelta(delta, workingSetDelta);
-                }
-                workingSetDelta.apply();
+                IWorkingSet workingSet = workingSetsCopy[i];
+                workingSetDeltas[i] = new WorkingSetDelta(workingSet,
+                    getIndex(workingSet));
+            }
+            WorkingSetDelta workingSetDelta = (length == 1)
+                ? workingSetDeltas[0] : new CompositeWorkingSetDelta(
+                    workingSetDeltas);
+            for (IElementDelta delta : event.getDeltas())
+            {
+                processElementDelta(delta, workingSetDelta);
+            }
+            for (WorkingSetDelta d : workingSetDeltas)
+            {
+                d.apply();
             }
         }
     };
@@ -82,7 +99,10 @@ public abstract class AbstractWorkingSetUpdater
      * registers} an element change listener that updates the content of each
      * of the {@link #contains(IWorkingSet) contained} working sets by {@link
      * #processElementDelta(IElementDelta, WorkingSetDelta) building} and
-     * applying a working set delta.
+     * applying a working set delta. The element change event is traversed
+     * only once for all of the working sets: the working set delta passed to
+     * <code>processElementDelta</code> by the listener represents the deltas
+     * for all of the contained working sets.
      * <p>
      * It is the client responsibility to {@link #dispose() dispose}
      * the created instance after it is no longer needed.
@@ -100,6 +120,10 @@ public abstract class AbstractWorkingSetUpdater
         {
             workingSets.clear();
         }
+        synchronized (indexes)
+        {
+            indexes.clear();
+        }
         removeElementChangeListener(listener);
     }
 
@@ -128,6 +152,10 @@ public abstract class AbstractWorkingSetUpdater
         {
             result = workingSets.remove(workingSet);
         }
+        synchronized (indexes)
+        {
+            indexes.remove(workingSet);
+        }
         return result;
     }
 
@@ -176,7 +204,9 @@ public abstract class AbstractWorkingSetUpdater
      * element delta. Delegates the processing of resource deltas contained
      * in the element delta to {@link #processResourceDelta(IResourceDelta,
      * WorkingSetDelta)}. Uses the {@link #getContentAdapter() content adapter}
-     * to convert {@link IElement}s to working set elements.
+     * to convert {@link IElement}s to working set elements. Does not descend
+     * into the delta if the working set delta can contain no descendants of
+     * the delta's element.
      *
      * @param delta an element delta (never <code>null</code>)
      * @param result the working set delta being built (never <code>null</code>)
@@ -221,6 +251,8 @@ public abstract class AbstractWorkingSetUpdater
                 }
             }
         }
+        if (!result.mayContainDescendantsOf(element))
+            return;
         IResourceDelta[] resourceDeltas = ElementDeltas.getResourceDeltas(
             delta);
         if (resourceDeltas != null)
@@ -333,6 +365,37 @@ public abstract class AbstractWorkingSetUpdater
         }
     }
 
+    private WorkingSetIndex getIndex(IWorkingSet workingSet)
+    {
+        IAdaptable[] elements = workingSet.getElements();
+        WorkingSetIndex index;
+        synchronized (indexes)
+        {
+            index = indexes.get(workingSet);
+        }
+        if (index != null && Arrays.equals(index.elements, elements))
+            return index;
+        index = new WorkingSetIndex(elements, getContentAdapter());
+        synchronized (indexes)
+        {
+            if (contains(workingSet))
+                indexes.put(workingSet, index);
+        }
+        return index;
+    }
+
+    private static void addPathPrefixes(IResource resource, Set<IPath> result)
+    {
+        if (resource == null)
+            return;
+        IPath path = resource.getFullPath();
+        for (int i = path.segmentCount(); i >= 0; i--)
+        {
+            if (!result.add(path.uptoSegment(i)))
+                break; // the remaining prefixes are already there
+        }
+    }
+
     private static boolean isInClosedProject(IResource resource)
     {
         if (resource == null)
@@ -348,23 +411,55 @@ public abstract class AbstractWorkingSetUpdater
      * The content of a working set can be updated by creating, modifying, and
      * applying a working set delta. When a working set delta is created, it is
      * initialized with a copy of the content of its underlying working set.
+     * <p>
+     * A working set delta passed to {@link #processElementDelta(IElementDelta,
+     * WorkingSetDelta)} and {@link #processResourceDelta(IResourceDelta,
+     * WorkingSetDelta)} may represent the content of several working sets at
+     * once. The index returned by {@link #indexOf(Object)} then identifies the
+     * occurrences of the element in each of the working sets rather than
+     * a position in any particular working set. Clients should only use
+     * such an index as an argument to {@link #set(int, IAdaptable)} and
+     * {@link #remove(int)} of the same delta, and should not use it after
+     * the element at that index has been removed.
+     * </p>
      */
     protected static class WorkingSetDelta
     {
+        // Removed elements leave a null in their slot, so that the slots
+        // of the remaining elements are stable; the slots are compacted
+        // when the delta is applied. Public indices skip the removed slots
+        // and are mapped to slots through a Fenwick tree over the slots,
+        // which is only built upon the first removal.
         private IWorkingSet workingSet;
-        private List<IAdaptable> elements;
+        private IAdaptable[] slots;
+        private WorkingSetIndex contentIndex;
+        private Map<Object, Integer> positions; // element -> first slot
+        private boolean positionsShared;
+        private boolean hasDuplicates;
+        private int[] liveSlots; // Fenwick tree of live slot counts
+        private int removedCount;
         private boolean changed;
 
-        WorkingSetDelta(IWorkingSet workingSet)
+        WorkingSetDelta()
+        {
+        }
+
+        WorkingSetDelta(IWorkingSet workingSet, WorkingSetIndex index)
         {
             this.workingSet = workingSet;
-            this.elements = new ArrayList<>(Arrays.asList(
-                workingSet.getElements()));
+            this.slots = index.elements.clone();
+            this.contentIndex = index;
+            this.positions = index.positions;
+            this.positionsShared = true;
+            this.hasDuplicates = index.hasDuplicates;
         }
 
         /**
          * Returns the index of the first occurrence of the given element in
          * this delta, or -1 if this delta does not contain the element.
+         * If this delta represents the content of several working sets,
+         * the returned index identifies the first occurrence of the element
+         * in each of the working sets (see the class comment).
          *
          * @param element the element to search for
          * @return the index of the first occurrence of the given element in
@@ -372,7 +467,10 @@ public abstract class AbstractWorkingSetUpdater
          */
         public int indexOf(Object element)
         {
-            return elements.indexOf(element);
+            int slot = slotOf(element);
+            if (slot == -1)
+                return -1;
+            return toIndex(slot);
         }
 
         /**
@@ -388,8 +486,7 @@ public abstract class AbstractWorkingSetUpdater
         {
             if (element == null)
                 throw new IllegalArgumentException();
-            elements.set(index, element);
-            changed = true;
+            setSlot(toSlot(index), element);
         }
 
         /**
@@ -401,18 +498,310 @@ public abstract class AbstractWorkingSetUpdater
          */
         public void remove(int index)
         {
-            if (elements.remove(index) != null)
+            removeSlot(toSlot(index));
+        }
+
+        boolean mayContainDescendantsOf(IElement element)
+        {
+            if (changed)
+                return true; // be conservative
+
+            if (contentIndex.ancestorElements.contains(element))
+                return true;
+
+            IResource resource = Elements.getResource(element);
+            return resource != null && contentIndex.ancestorPaths.contains(
+                resource.getFullPath());
+        }
+
+        void apply()
+        {
+            if (changed)
             {
-                changed = true;
+                IAdaptable[] elements = new IAdaptable[slots.length
+                    - removedCount];
+                int i = 0;
+                for (IAdaptable element : slots)
+                {
+                    if (element != null)
+                        elements[i++] = element;
+                }
+                workingSet.setElements(elements);
+            }
+        }
+
+        /*
+         * Returns the slot of the first occurrence of the given element,
+         * or -1 if there is no such element. The slot remains valid until
+         * the element is removed, regardless of other removals.
+         */
+        int slotOf(Object element)
+        {
+            if (positions == null)
+            {
+                positions = computePositions(slots);
+                positionsShared = false;
             }
+            Integer position = positions.get(element);
+            if (position == null)
+                return -1;
+            return position;
         }
 
+        void setSlot(int slot, IAdaptable element)
+        {
+            IAdaptable oldElement = slots[slot];
+            if (oldElement == null)
+                return; // removed
+            slots[slot] = element;
+            if (positions != null && !hasDuplicates)
+            {
+                ensureOwnPositions();
+                // the old element has no other occurrences
+                positions.remove(oldElement);
+                Integer position = positions.putIfAbsent(element, slot);
+                if (position != null)
+                {
+                    hasDuplicates = true;
+                    if (position > slot)
+                        positions.put(element, slot);
+                }
+            }
+            else
+            {
+                positions = null; // recompute lazily
+            }
+            changed = true;
+        }
+
+        void removeSlot(int slot)
+        {
+            IAdaptable element = slots[slot];
+            if (element == null)
+                return; // already removed
+            slots[slot] = null;
+            if (liveSlots == null)
+                liveSlots = newLiveSlots(slots.length);
+            for (int i = slot + 1; i < liveSlots.length; i += i & -i)
+                liveSlots[i]--;
+            removedCount++;
+            if (positions != null && !hasDuplicates)
+            {
+                ensureOwnPositions();
+                positions.remove(element);
+            }
+            else
+            {
+                positions = null; // recompute lazily
+            }
+            changed = true;
+        }
+
+        private int toIndex(int slot)
+        {
+            if (removedCount == 0)
+                return slot;
+            int count = 0; // the number of live slots up to the given slot
+            for (int i = slot + 1; i > 0; i -= i & -i)
+                count += liveSlots[i];
+            return count - 1;
+        }
+
+        private int toSlot(int index)
+        {
+            if (index < 0 || index >= slots.length - removedCount)
+                throw new IndexOutOfBoundsException();
+            if (removedCount == 0)
+                return index;
+            // find the slot with exactly index live slots before it
+            int slot = 0;
+            int remaining = index + 1;
+            for (int step = Integer.highestOneBit(slots.length); step > 0;
+                step >>= 1)
+            {
+                int next = slot + step;
+                if (next <= slots.length && liveSlots[next] < remaining)
+                {
+                    slot = next;
+                    remaining -= liveSlots[next];
+                }
+            }
+            return slot;
+        }
+
+        private void ensureOwnPositions()
+        {
+            if (positionsShared)
+            {
+                positions = new HashMap<>(positions);
+                positionsShared = false;
+            }
+        }
+
+        private static int[] newLiveSlots(int size)
+        {
+            int[] tree = new int[size + 1];
+            for (int i = 1; i <= size; i++)
+            {
+                tree[i]++;
+                int parent = i + (i & -i);
+                if (parent <= size)
+                    tree[parent] += tree[i];
+            }
+            return tree;
+        }
+
+        private static Map<Object, Integer> computePositions(
+            IAdaptable[] elements)
+        {
+            int size = elements.length;
+            Map<Object, Integer> result = new HashMap<>((int)(size / 0.75) + 1);
+            for (int i = 0; i < size; i++)
+            {
+                if (elements[i] != null)
+                    result.putIfAbsent(elements[i], i);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Combines the deltas for a number of working sets, so that the element
+     * change event can be traversed only once. An index returned by {@link
+     * #indexOf(Object)} identifies the slots of the element in each of
+     * the underlying deltas and is only meaningful for this delta.
+     */
+    private static class CompositeWorkingSetDelta
+        extends WorkingSetDelta
+    {
+        private final WorkingSetDelta[] deltas;
+        // the slots of the element found by the i-th successful indexOf
+        // call occupy hits[i * deltas.length] to hits[(i + 1) * deltas.length];
+        // slots are stable across removals, so the hits need no updates
+        private int[] hits = new int[0];
+        private int hitCount;
+
+        CompositeWorkingSetDelta(WorkingSetDelta[] deltas)
+        {
+            this.deltas = deltas;
+        }
+
+        @Override
+        public int indexOf(Object element)
+        {
+            int n = deltas.length;
+            int start = hitCount * n;
+            boolean found = false;
+            for (int i = 0; i < n; i++)
+            {
+                int slot = deltas[i].slotOf(element);
+                if (slot != -1 && !found)
+                {
+                    found = true;
+                    if (start + n > hits.length)
+                        hits = Arrays.copyOf(hits, Math.max(start + n,
+                            hits.length * 2));
+                    Arrays.fill(hits, start, start + i, -1);
+                }
+                if (found)
+                    hits[start + i] = slot;
+            }
+            if (!found)
+                return -1;
+            return hitCount++;
+        }
+
+        @Override
+        public void set(int index, IAdaptable element)
+        {
+            if (element == null)
+                throw new IllegalArgumentException();
+            int start = checkIndex(index) * deltas.length;
+            for (int i = 0; i < deltas.length; i++)
+            {
+                int slot = hits[start + i];
+                if (slot != -1)
+                    deltas[i].setSlot(slot, element);
+            }
+        }
+
+        @Override
+        public void remove(int index)
+        {
+            int start = checkIndex(index) * deltas.length;
+            for (int i = 0; i < deltas.length; i++)
+            {
+                int slot = hits[start + i];
+                if (slot != -1)
+                    deltas[i].removeSlot(slot);
+            }
+        }
+
+        private int checkIndex(int index)
+        {
+            if (index < 0 || index >= hitCount)
+                throw new IndexOutOfBoundsException();
+            return index;
+        }
+
+        @Override
+        boolean mayContainDescendantsOf(IElement element)
+        {
+            for (WorkingSetDelta delta : deltas)
+            {
+                if (delta.mayContainDescendantsOf(element))
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
         void apply()
         {
-            if (changed)
+            for (WorkingSetDelta delta : deltas)
             {
-                workingSet.setElements(elements.toArray(
-                    new IAdaptable[elements.size()]));
+                delta.apply();
+            }
+        }
+    }
+
+    /**
+     * Holds the content of a working set along with data derived from it
+     * that can be reused while the content of the working set is unchanged.
+     */
+    private static class WorkingSetIndex
+    {
+        final IAdaptable[] elements;
+        final Map<Object, Integer> positions;
+        final boolean hasDuplicates;
+        final Set<IElement> ancestorElements = new HashSet<>();
+        final Set<IPath> ancestorPaths = new HashSet<>();
+
+        WorkingSetIndex(IAdaptable[] elements, IContentAdapter contentAdapter)
+        {
+            this.elements = elements;
+            this.positions = WorkingSetDelta.computePositions(elements);
+            this.hasDuplicates = positions.size() != elements.length;
+            for (IAdaptable wsElement : elements)
+            {
+                if (wsElement instanceof IResource)
+                {
+                    addPathPrefixes((IResource)wsElement, ancestorPaths);
+                }
+                else
+                {
+                    IElement element = contentAdapter.adapt(wsElement);
+                    if (element != null)
+                    {
+                        for (IElement e : Elements.getParentChain(element))
+                        {
+                            if (!ancestorElements.add(e))
+                                break; // the remaining ancestors are there
+                        }
+                        addPathPrefixes(Elements.getResource(element),
+                            ancestorPaths);
+                    }
+                }
             }
         }
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2021 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -97,6 +97,7 @@ public class HandlyXtextDocument
     private final DocumentListener selfListener = new DocumentListener();
     private PendingChange pendingChange;
     private final Object pendingChangeLock = new Object();
+    private boolean fullReparseRequired; // guarded by the write lock
     private DirtyStateEditorSupport dirtyStateEditorSupport;
 
     @Inject
@@ -269,13 +270,16 @@ public class HandlyXtextDocument
      * @param snapshot the reconciled snapshot (never <code>null</code>)
      * @param forced whether reconciling was forced, i.e. the document has not
      *  changed since it was reconciled the last time
+     * @param reparsedRegion the text change that has been applied to the
+     *  resource by this reconciling operation, or <code>null</code> if none
      * @param monitor a progress monitor (never <code>null</code>).
      *  The caller must not rely on {@link IProgressMonitor#done()}
      *  having been called by the receiver
      * @throws OperationCanceledException if this method is canceled
      */
     private void reconciled(XtextResource resource,
-        NonExpiringSnapshot snapshot, boolean forced, IProgressMonitor monitor)
+        NonExpiringSnapshot snapshot, boolean forced,
+        ReparsedRegion reparsedRegion, IProgressMonitor monitor)
     {
         Object[] listeners = reconcilingListeners.getListeners();
         SubMonitor loopMonitor = SubMonitor.convert(monitor, listeners.length);
@@ -288,7 +292,7 @@ public class HandlyXtextDocument
                 public void run() throws Exception
                 {
                     ((IReconcilingListener)listener).reconciled(resource,
-                        snapshot, forced, iterationMonitor);
+                        snapshot, forced, reparsedRegion, iterationMonitor);
                 }
 
                 @Override
@@ -335,6 +339,11 @@ public class HandlyXtextDocument
          * @param snapshot the reconciled snapshot (never <code>null</code>)
          * @param forced whether reconciling was forced, i.e. the document
          *  has not changed since it was reconciled the last time
+         * @param reparsedRegion the text change that has been applied to
+         *  the resource by this reconciling operation, or <code>null</code>
+         *  if the resource has not been reparsed. Note that the listener may
+         *  not have been notified of the base snapshot of the change, e.g.
+         *  if the previous notification was canceled
          * @param monitor a progress monitor (never <code>null</code>).
          *  The caller must not rely on {@link IProgressMonitor#done()}
          *  having been called by the receiver
@@ -342,7 +351,8 @@ public class HandlyXtextDocument
          * @throws Exception if a problem occurred while running this method
          */
         void reconciled(XtextResource resource, NonExpiringSnapshot snapshot,
-            boolean forced, IProgressMonitor monitor) throws Exception;
+            boolean forced, ReparsedRegion reparsedRegion,
+            IProgressMonitor monitor) throws Exception;
     }
 
     private class DocumentListener
@@ -360,20 +370,49 @@ public class HandlyXtextDocument
         }
     }
 
+    /*
+     * Records the region affected by the document changes since the last
+     * reconcile. Only the bounds of the region are tracked as the document
+     * changes; the document contents is not copied until the change is
+     * actually reconciled.
+     */
     private class PendingChange
     {
-        private NonExpiringSnapshot snapshotToReconcile;
-        private ReplaceRegion replaceRegionToReconcile;
+        private int offset = -1; // no changes yet
+        private int oldEndOffset; // in the reconciled text
+        private int newEndOffset; // in the current text
         private long modificationStamp;
+        private ISnapshot snapshotToReconcile; // does not hold the contents
 
-        public NonExpiringSnapshot getSnapshotToReconcile()
+        /**
+         * Returns whether the given snapshot of the document corresponds to
+         * the last recorded change, i.e. the document has not changed since.
+         * Document changes are recorded after the fact, so a change may not
+         * have been recorded yet even though the document's write lock is held.
+         *
+         * @param snapshot a snapshot of the document (not <code>null</code>)
+         * @return <code>true</code> if the snapshot corresponds to
+         *  the last recorded change, and <code>false</code> otherwise
+         */
+        public boolean isRecordedIn(NonExpiringSnapshot snapshot)
         {
-            return snapshotToReconcile;
+            return snapshot.getWrappedSnapshot().isEqualTo(
+                snapshotToReconcile);
         }
 
-        public ReplaceRegion getReplaceRegionToReconcile()
+        /**
+         * Returns the region to reconcile in the reconciled text,
+         * along with the replacement text taken from the given snapshot.
+         *
+         * @param snapshot the current snapshot of the document
+         *  (not <code>null</code>)
+         * @return the region to reconcile (never <code>null</code>)
+         */
+        public ReplaceRegion getReplaceRegionToReconcile(
+            NonExpiringSnapshot snapshot)
         {
-            return replaceRegionToReconcile;
+            return new ReplaceRegion(offset, oldEndOffset - offset,
+                snapshot.getContents().substring(offset, newEndOffset));
         }
 
         public long getModificationStamp()
@@ -388,15 +427,31 @@ public class HandlyXtextDocument
          */
         public void add(DocumentEvent event)
         {
-            snapshotToReconcile = getNonExpiringSnapshot();
-            ReplaceRegion replaceRegion = new ReplaceRegion(event.getOffset(),
-                event.getLength(), event.getText());
-            if (replaceRegionToReconcile == null)
-                replaceRegionToReconcile = replaceRegion;
+            int eventOffset = event.getOffset();
+            int eventEndOffset = eventOffset + event.getLength();
+            String text = event.getText();
+            int delta = (text == null ? 0 : text.length()) - event.getLength();
+            if (offset < 0)
+            {
+                offset = eventOffset;
+                oldEndOffset = eventEndOffset;
+                newEndOffset = eventEndOffset;
+            }
             else
-                replaceRegionToReconcile.mergeWith(replaceRegion,
-                    snapshotToReconcile.getContents());
+            {
+                // text outside the region has the same offsets
+                // in the reconciled text and the current text
+                if (eventOffset < offset)
+                    offset = eventOffset;
+                if (eventEndOffset > newEndOffset)
+                {
+                    oldEndOffset += eventEndOffset - newEndOffset;
+                    newEndOffset = eventEndOffset;
+                }
+            }
+            newEndOffset += delta;
             modificationStamp = event.getModificationStamp();
+            snapshotToReconcile = getSnapshot();
         }
     }
 
@@ -454,7 +509,8 @@ public class HandlyXtextDocument
                         {
                             subMonitor.worked(1);
                             reconciled(resource, snapshot,
-                                !reconcilingWasCanceled, subMonitor.split(1));
+                                !reconcilingWasCanceled, null, subMonitor.split(
+                                    1));
                         }
 
                         @Override
@@ -469,31 +525,68 @@ public class HandlyXtextDocument
             }
             else
             {
-                NonExpiringSnapshot snapshot = change.getSnapshotToReconcile();
-                ReplaceRegion replaceRegion =
-                    change.getReplaceRegionToReconcile();
+                NonExpiringSnapshot snapshot = getNonExpiringSnapshot();
                 long modificationStamp = change.getModificationStamp();
-                try
+                ReparsedRegion reparsedRegion;
+                if (fullReparseRequired || !change.isRecordedIn(snapshot))
                 {
-                    resource.update(replaceRegion.getOffset(),
-                        replaceRegion.getLength(), replaceRegion.getText());
-                    resource.setModificationStamp(modificationStamp);
-                }
-                catch (Exception e)
-                {
-                    // partial parsing failed - performing full reparse
-                    Activator.logError(e);
+                    // the document has changed since the change was recorded,
+                    // or the resource already includes a change that has not
+                    // been recorded at the time of the previous reconcile:
+                    // the change cannot be applied incrementally. Perform
+                    // a full reparse and make sure the next change is also
+                    // fully reparsed, since it may already be included
+                    // in the snapshot
+                    fullReparseRequired = !change.isRecordedIn(snapshot);
+                    reparsedRegion = new ReparsedRegion(
+                        reconciledSnapshot.getWrappedSnapshot(), 0,
+                        reconciledSnapshot.getContents().length(),
+                        snapshot.getContents().length());
                     try
                     {
                         resource.reparse(snapshot.getContents());
                         resource.setModificationStamp(modificationStamp);
                     }
-                    catch (Exception e2)
+                    catch (Exception e)
                     {
-                        // full parsing also failed - restore state
-                        Activator.logError(e2);
+                        // full parsing failed - restore state
+                        Activator.logError(e);
                         resource.reparse(reconciledSnapshot.getContents());
-                        throw e2;
+                        fullReparseRequired = true; // the change is lost
+                        throw e;
+                    }
+                }
+                else
+                {
+                    ReplaceRegion replaceRegion =
+                        change.getReplaceRegionToReconcile(snapshot);
+                    reparsedRegion = new ReparsedRegion(
+                        reconciledSnapshot.getWrappedSnapshot(),
+                        replaceRegion.getOffset(), replaceRegion.getLength(),
+                        replaceRegion.getText().length());
+                    try
+                    {
+                        resource.update(replaceRegion.getOffset(),
+                            replaceRegion.getLength(), replaceRegion.getText());
+                        resource.setModificationStamp(modificationStamp);
+                    }
+                    catch (Exception e)
+                    {
+                        // partial parsing failed - performing full reparse
+                        Activator.logError(e);
+                        try
+                        {
+                            resource.reparse(snapshot.getContents());
+                            resource.setModificationStamp(modificationStamp);
+                        }
+                        catch (Exception e2)
+                        {
+                            // full parsing also failed - restore state
+                            Activator.logError(e2);
+                            resource.reparse(reconciledSnapshot.getContents());
+                            fullReparseRequired = true; // the change is lost
+                            throw e2;
+                        }
                     }
                 }
                 SafeRunner.run(new ISafeRunnable()
@@ -502,8 +595,8 @@ public class HandlyXtextDocument
                     public void run() throws Exception
                     {
                         subMonitor.worked(1);
-                        reconciled(resource, snapshot, false, subMonitor.split(
-                            1));
+                        reconciled(resource, snapshot, false, reparsedRegion,
+                            subMonitor.split(1));
                     }
 
                     @Override
@@ -635,7 +728,8 @@ public class HandlyXtextDocument
         @Override
         public void reconciled(XtextResource resource,
             NonExpiringSnapshot snapshot, boolean forced,
-            IProgressMonitor monitor) throws Exception
+            ReparsedRegion reparsedRegion, IProgressMonitor monitor)
+            throws Exception
         {
             CancelIndicator cancelIndicator = new CancelIndicator()
             {
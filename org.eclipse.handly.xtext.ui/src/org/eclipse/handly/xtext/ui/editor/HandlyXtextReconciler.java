@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2022 itemis AG (http://www.itemis.eu) and others.
+ * Copyright (c) 2008, 2026 itemis AG (http://www.itemis.eu) and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -23,6 +23,7 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.handly.internal.xtext.ui.Activator;
+import org.eclipse.handly.ui.text.reconciler.AdaptiveReconcilingDelay;
 import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
@@ -111,6 +112,35 @@ public class HandlyXtextReconciler
         delegate.setDelay(delay);
     }
 
+    /**
+     * Sets the policy that is to be used by this reconciler to adapt the
+     * delay between a document change and reconciling. If the policy is
+     * <code>null</code>, the delay set via {@link #setDelay(int)} is used.
+     * <p>
+     * By default, there is no adaptive delay policy.
+     * </p>
+     *
+     * @param adaptiveDelay the adaptive delay policy, or <code>null</code>
+     * @since 1.8
+     */
+    public void setAdaptiveDelay(AdaptiveReconcilingDelay adaptiveDelay)
+    {
+        delegate.setAdaptiveDelay(adaptiveDelay);
+    }
+
+    /**
+     * Returns the policy used by this reconciler to adapt the delay between
+     * a document change and reconciling. The policy may be queried for
+     * metrics, such as the current delay and the number of skipped reconciles.
+     *
+     * @return the adaptive delay policy, or <code>null</code> if none
+     * @since 1.8
+     */
+    public AdaptiveReconcilingDelay getAdaptiveDelay()
+    {
+        return delegate.getAdaptiveDelay();
+    }
+
     @Override
     public void forceReconcile()
     {
@@ -139,7 +169,8 @@ public class HandlyXtextReconciler
             new TextInputListener();
         private final DocumentListener documentListener =
             new DocumentListener();
-        private int delay = 500;
+        private volatile int delay = 500;
+        private volatile AdaptiveReconcilingDelay adaptiveDelay;
 
         public InternalReconciler(Injector injector)
         {
@@ -154,6 +185,24 @@ public class HandlyXtextReconciler
             this.delay = delay;
         }
 
+        public void setAdaptiveDelay(AdaptiveReconcilingDelay adaptiveDelay)
+        {
+            this.adaptiveDelay = adaptiveDelay;
+        }
+
+        public AdaptiveReconcilingDelay getAdaptiveDelay()
+        {
+            return adaptiveDelay;
+        }
+
+        private int getDelay()
+        {
+            AdaptiveReconcilingDelay adaptiveDelay = this.adaptiveDelay;
+            if (adaptiveDelay != null)
+                return adaptiveDelay.getDelay();
+            return delay;
+        }
+
         public void forceReconcile()
         {
             if (viewer == null || viewer.getDocument() == null)
@@ -163,7 +212,7 @@ public class HandlyXtextReconciler
                 return; // ignore call from XtextEditor#createPartControl; see bug 507162 for details
             cancel();
             forced.set(true);
-            schedule(delay);
+            schedule(getDelay());
         }
 
         @Override
@@ -244,7 +293,13 @@ public class HandlyXtextReconciler
                 {
                     try
                     {
+                        long start = System.nanoTime();
                         doc.reconcile(forced, monitor);
+                        AdaptiveReconcilingDelay adaptiveDelay =
+                            this.adaptiveDelay;
+                        if (adaptiveDelay != null && !monitor.isCanceled())
+                            adaptiveDelay.reconciled((System.nanoTime()
+                                - start) / 1000000, doc.getLength());
                     }
                     catch (OperationCanceledException e)
                     {
@@ -263,8 +318,12 @@ public class HandlyXtextReconciler
 
         private void handleDocumentChanged(DocumentEvent event)
         {
+            AdaptiveReconcilingDelay adaptiveDelay = this.adaptiveDelay;
+            if (adaptiveDelay != null)
+                adaptiveDelay.documentChanged(
+                    event.getDocument().getLength());
             cancel();
-            schedule(delay);
+            schedule(getDelay());
         }
 
         private void pause()
@@ -275,7 +334,7 @@ public class HandlyXtextReconciler
         private void resume()
         {
             paused = false;
-            schedule(delay);
+            schedule(getDelay());
         }
 
         private boolean isHandlyXtextEditorCallbackInstalled()
@@ -414,7 +473,7 @@ public class HandlyXtextReconciler
                 {
                     ((HandlyXtextDocument)newInput).addXtextDocumentContentObserver(
                         documentListener);
-                    schedule(delay);
+                    schedule(getDelay());
                 }
 
                 if (shouldInstallCompletionListener)
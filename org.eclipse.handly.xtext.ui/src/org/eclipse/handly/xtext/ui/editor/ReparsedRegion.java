@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.xtext.ui.editor;
+
+import org.eclipse.handly.snapshot.ISnapshot;
+
+/**
+ * Describes the text change that has been applied to an Xtext resource
+ * by a partial reparse. The change replaced the text region given by
+ * {@link #getOffset() offset} and {@link #getLength() length} in the
+ * {@link #getBaseSnapshot() base snapshot} with a text of the given
+ * {@link #getNewLength() new length}. Text outside the region has not
+ * changed, although text following the region may have shifted.
+ * <p>
+ * Structure builders may use this information to reuse the previously
+ * built structure for the constructs that lie outside the region, provided
+ * that the previously built structure is based on the base snapshot.
+ * </p>
+ * <p>
+ * Instances of this class are immutable.
+ * </p>
+ *
+ * @see XtextWorkingCopyCallback#REPARSED_REGION
+ * @since 1.8
+ */
+public final class ReparsedRegion
+{
+    private final ISnapshot baseSnapshot;
+    private final int offset;
+    private final int length;
+    private final int newLength;
+
+    /**
+     * Constructs a new reparsed region.
+     *
+     * @param baseSnapshot the snapshot the change was applied to
+     *  (not <code>null</code>)
+     * @param offset the offset of the replaced region (non-negative)
+     * @param length the length of the replaced region (non-negative)
+     * @param newLength the length of the replacement text (non-negative)
+     */
+    public ReparsedRegion(ISnapshot baseSnapshot, int offset, int length,
+        int newLength)
+    {
+        if (baseSnapshot == null)
+            throw new IllegalArgumentException();
+        if (offset < 0 || length < 0 || newLength < 0)
+            throw new IllegalArgumentException();
+        this.baseSnapshot = baseSnapshot;
+        this.offset = offset;
+        this.length = length;
+        this.newLength = newLength;
+    }
+
+    /**
+     * Returns the snapshot the change was applied to, i.e. the snapshot
+     * the resource was based on before the reparse.
+     *
+     * @return the base snapshot (never <code>null</code>)
+     */
+    public ISnapshot getBaseSnapshot()
+    {
+        return baseSnapshot;
+    }
+
+    /**
+     * Returns the offset of the replaced region. The offset is the same
+     * in the base text and in the new text.
+     *
+     * @return the offset of the replaced region
+     */
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Returns the length of the replaced region in the base text.
+     *
+     * @return the length of the replaced region
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Returns the length of the replacement text.
+     *
+     * @return the length of the replacement text
+     */
+    public int getNewLength()
+    {
+        return newLength;
+    }
+
+    /**
+     * Returns the amount by which the text following the region has shifted.
+     *
+     * @return the difference between the new length and the length
+     */
+    public int getDelta()
+    {
+        return newLength - length;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ReparsedRegion [offset=" + offset + ", length=" + length //$NON-NLS-1$ //$NON-NLS-2$
+            + ", newLength=" + newLength + ']'; //$NON-NLS-1$
+    }
+}
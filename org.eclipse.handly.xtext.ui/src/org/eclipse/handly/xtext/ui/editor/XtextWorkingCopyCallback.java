@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -23,6 +23,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.handly.context.Context;
 import org.eclipse.handly.context.IContext;
+import org.eclipse.handly.context.Property;
 import org.eclipse.handly.internal.xtext.ui.Activator;
 import org.eclipse.handly.model.impl.IWorkingCopyCallback;
 import org.eclipse.handly.model.impl.IWorkingCopyInfo;
@@ -33,23 +34,45 @@ import org.eclipse.xtext.resource.XtextResource;
 /**
  * Xtext-specific implementation of {@link IWorkingCopyCallback}. Reconciles the
  * working copy when the underlying {@link HandlyXtextDocument} is reconciled.
+ * <p>
+ * If the document has been reconciled by a partial reparse, the reconcile
+ * context also specifies the {@link #REPARSED_REGION}. Since the reconcile
+ * context is passed down to the source file's structure builder, the builder
+ * may use it to rebuild only the constructs affected by the change.
+ * </p>
  */
 public class XtextWorkingCopyCallback
     extends WorkingCopyCallback
 {
+    /**
+     * Specifies the text change that has been applied to the source AST
+     * by a partial reparse. The previously built structure of the working
+     * copy may be reused for the constructs outside the reparsed region if,
+     * and only if, it is based on the region's {@link
+     * ReparsedRegion#getBaseSnapshot() base snapshot}.
+     *
+     * @since 1.8
+     */
+    public static final Property<ReparsedRegion> REPARSED_REGION =
+        Property.get(XtextWorkingCopyCallback.class.getName()
+            + ".reparsedRegion", ReparsedRegion.class); //$NON-NLS-1$
+
     private final HandlyXtextDocument.IReconcilingListener reconcilingListener =
         new HandlyXtextDocument.IReconcilingListener()
         {
             @Override
             public void reconciled(XtextResource resource,
                 NonExpiringSnapshot snapshot, boolean forced,
-                IProgressMonitor monitor) throws Exception
+                ReparsedRegion reparsedRegion, IProgressMonitor monitor)
+                throws Exception
             {
                 Context context = new Context();
                 context.bind(SOURCE_AST).to(resource);
                 context.bind(SOURCE_CONTENTS).to(snapshot.getContents());
                 context.bind(SOURCE_SNAPSHOT).to(snapshot.getWrappedSnapshot());
                 context.bind(RECONCILING_FORCED).to(forced);
+                if (reparsedRegion != null)
+                    context.bind(REPARSED_REGION).to(reparsedRegion);
                 getWorkingCopyInfo().getReconcileStrategy().reconcile(context,
                     monitor);
             }
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.buffer;
+
+import java.util.ArrayDeque;
+
+/**
+ * An immutable sequence of characters represented as a height-balanced
+ * binary tree of string leaves. Replacing a range of characters creates
+ * a new rope that shares all unaffected subtrees with the original rope
+ * and takes time logarithmic in the length of the rope (plus the length
+ * of the inserted text).
+ */
+abstract class Rope
+{
+    /**
+     * The maximum length of a leaf created by splitting a longer text;
+     * adjacent leaves are merged while the result does not exceed it.
+     */
+    static final int MAX_LEAF_LENGTH = 512;
+
+    static final Rope EMPTY = new Leaf(""); //$NON-NLS-1$
+
+    /**
+     * Returns a rope containing the given text.
+     *
+     * @param text not <code>null</code>
+     * @return a rope with the given contents (never <code>null</code>)
+     */
+    static Rope of(String text)
+    {
+        if (text.isEmpty())
+            return EMPTY;
+        return build(text, 0, text.length());
+    }
+
+    /**
+     * Returns the number of characters in this rope.
+     *
+     * @return the length of this rope
+     */
+    abstract int length();
+
+    /**
+     * Returns the character at the given index.
+     *
+     * @param index between 0 (inclusive) and {@link #length()} (exclusive)
+     * @return the character at the given index
+     */
+    char charAt(int index)
+    {
+        if (index < 0 || index >= length())
+            throw new IndexOutOfBoundsException();
+        Rope rope = this;
+        while (rope instanceof Node)
+        {
+            Node node = (Node)rope;
+            int leftLength = node.left.length();
+            if (index < leftLength)
+                rope = node.left;
+            else
+            {
+                index -= leftLength;
+                rope = node.right;
+            }
+        }
+        return ((Leaf)rope).text.charAt(index);
+    }
+
+    /**
+     * Returns the characters in the given range as a string.
+     *
+     * @param start the start index, inclusive
+     * @param end the end index, exclusive
+     * @return the characters in the given range (never <code>null</code>)
+     */
+    String substring(int start, int end)
+    {
+        checkRange(start, end);
+        if (this instanceof Leaf)
+            return ((Leaf)this).text.substring(start, end);
+        StringBuilder sb = new StringBuilder(end - start);
+        appendTo(sb, start, end);
+        return sb.toString();
+    }
+
+    /**
+     * Returns a rope that is the result of replacing the given range
+     * of this rope with the given text.
+     *
+     * @param offset the start of the range to replace
+     * @param length the length of the range to replace
+     * @param text the replacement text (not <code>null</code>)
+     * @return the resulting rope (never <code>null</code>)
+     */
+    Rope replace(int offset, int length, String text)
+    {
+        int end = offset + length;
+        checkRange(offset, end);
+        return concat(concat(subRope(0, offset), of(text)), subRope(end,
+            length()));
+    }
+
+    /**
+     * Returns whether this rope contains the same sequence of characters
+     * as the given rope.
+     *
+     * @param other not <code>null</code>
+     * @return <code>true</code> if the contents are equal,
+     *  and <code>false</code> otherwise
+     */
+    boolean contentEquals(Rope other)
+    {
+        if (this == other)
+            return true;
+        if (length() != other.length())
+            return false;
+        LeafIterator it1 = new LeafIterator(this);
+        LeafIterator it2 = new LeafIterator(other);
+        String s1 = null, s2 = null;
+        int i1 = 0, i2 = 0;
+        while (true)
+        {
+            if (s1 == null || i1 == s1.length())
+            {
+                s1 = it1.next();
+                i1 = 0;
+            }
+            if (s2 == null || i2 == s2.length())
+            {
+                s2 = it2.next();
+                i2 = 0;
+            }
+            if (s1 == null || s2 == null)
+                return s1 == s2;
+            int n = Math.min(s1.length() - i1, s2.length() - i2);
+            if (!s1.regionMatches(i1, s2, i2, n))
+                return false;
+            i1 += n;
+            i2 += n;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return substring(0, length());
+    }
+
+    abstract int height();
+
+    abstract Rope subRope(int start, int end);
+
+    abstract void appendTo(StringBuilder sb, int start, int end);
+
+    private void checkRange(int start, int end)
+    {
+        if (start < 0 || end < start || end > length())
+            throw new IndexOutOfBoundsException();
+    }
+
+    private static Rope build(String text, int start, int end)
+    {
+        if (end - start <= MAX_LEAF_LENGTH)
+            return new Leaf(text.substring(start, end));
+        int mid = (start + end) >>> 1;
+        return new Node(build(text, start, mid), build(text, mid, end));
+    }
+
+    /*
+     * Joins two height-balanced ropes into a height-balanced rope.
+     */
+    static Rope concat(Rope left, Rope right)
+    {
+        if (left.length() == 0)
+            return right;
+        if (right.length() == 0)
+            return left;
+        if (left instanceof Leaf && right instanceof Leaf
+            && left.length() + right.length() <= MAX_LEAF_LENGTH)
+        {
+            return new Leaf(((Leaf)left).text + ((Leaf)right).text);
+        }
+        int leftHeight = left.height();
+        int rightHeight = right.height();
+        if (leftHeight > rightHeight + 1)
+        {
+            Node node = (Node)left;
+            return balance(node.left, concat(node.right, right));
+        }
+        if (rightHeight > leftHeight + 1)
+        {
+            Node node = (Node)right;
+            return balance(concat(left, node.left), node.right);
+        }
+        return new Node(left, right);
+    }
+
+    /*
+     * Creates a node for the given subtrees whose heights may differ by two,
+     * performing a single or double rotation as necessary.
+     */
+    private static Rope balance(Rope left, Rope right)
+    {
+        int leftHeight = left.height();
+        int rightHeight = right.height();
+        if (leftHeight > rightHeight + 1)
+        {
+            Node l = (Node)left;
+            if (l.left.height() >= l.right.height())
+                return new Node(l.left, new Node(l.right, right));
+            Node lr = (Node)l.right;
+            return new Node(new Node(l.left, lr.left), new Node(lr.right,
+                right));
+        }
+        if (rightHeight > leftHeight + 1)
+        {
+            Node r = (Node)right;
+            if (r.right.height() >= r.left.height())
+                return new Node(new Node(left, r.left), r.right);
+            Node rl = (Node)r.left;
+            return new Node(new Node(left, rl.left), new Node(rl.right,
+                r.right));
+        }
+        return new Node(left, right);
+    }
+
+    private static final class Leaf
+        extends Rope
+    {
+        final String text;
+
+        Leaf(String text)
+        {
+            this.text = text;
+        }
+
+        @Override
+        int length()
+        {
+            return text.length();
+        }
+
+        @Override
+        int height()
+        {
+            return 0;
+        }
+
+        @Override
+        Rope subRope(int start, int end)
+        {
+            if (start == 0 && end == text.length())
+                return this;
+            return new Leaf(text.substring(start, end));
+        }
+
+        @Override
+        void appendTo(StringBuilder sb, int start, int end)
+        {
+            sb.append(text, start, end);
+        }
+
+        @Override
+        public String toString()
+        {
+            return text;
+        }
+    }
+
+    private static final class Node
+        extends Rope
+    {
+        final Rope left, right;
+        final int length;
+        final int height;
+
+        Node(Rope left, Rope right)
+        {
+            this.left = left;
+            this.right = right;
+            this.length = left.length() + right.length();
+            this.height = Math.max(left.height(), right.height()) + 1;
+        }
+
+        @Override
+        int length()
+        {
+            return length;
+        }
+
+        @Override
+        int height()
+        {
+            return height;
+        }
+
+        @Override
+        Rope subRope(int start, int end)
+        {
+            if (start == 0 && end == length)
+                return this;
+            int leftLength = left.length();
+            if (end <= leftLength)
+                return left.subRope(start, end);
+            if (start >= leftLength)
+                return right.subRope(start - leftLength, end - leftLength);
+            return concat(left.subRope(start, leftLength), right.subRope(0,
+                end - leftLength));
+        }
+
+        @Override
+        void appendTo(StringBuilder sb, int start, int end)
+        {
+            int leftLength = left.length();
+            if (start < leftLength)
+                left.appendTo(sb, start, Math.min(end, leftLength));
+            if (end > leftLength)
+                right.appendTo(sb, Math.max(start - leftLength, 0), end
+                    - leftLength);
+        }
+    }
+
+    /*
+     * Iterates over the texts of the leaves of a rope from left to right.
+     */
+    private static final class LeafIterator
+    {
+        private final ArrayDeque<Rope> stack = new ArrayDeque<>();
+
+        LeafIterator(Rope rope)
+        {
+            stack.push(rope);
+        }
+
+        String next()
+        {
+            while (!stack.isEmpty())
+            {
+                Rope rope = stack.pop();
+                if (rope instanceof Leaf)
+                {
+                    if (rope.length() > 0)
+                        return ((Leaf)rope).text;
+                }
+                else
+                {
+                    Node node = (Node)rope;
+                    stack.push(node.right);
+                    stack.push(node.left);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.buffer;
+
+import org.eclipse.handly.snapshot.ISnapshot;
+import org.eclipse.handly.snapshot.Snapshot;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ISynchronizable;
+
+/**
+ * A {@link Buffer} whose contents is stored in an immutable rope, i.e.
+ * a balanced tree of text fragments. Modifying the buffer takes time
+ * logarithmic in the length of the buffer contents, and taking a snapshot
+ * of the buffer takes constant time, since the snapshot just shares the
+ * current rope.
+ * <p>
+ * Snapshots of this buffer never expire: their contents remains available
+ * even after the buffer has been modified. Equality of two such snapshots
+ * is determined exactly, without materializing the contents as a string.
+ * </p>
+ * <p>
+ * This buffer is intended for programmatic use, such as in refactorings or
+ * code generation that modify a large number of files without opening them
+ * in an editor. Its document is a plain {@link Document} that is not set up
+ * by any document setup participants.
+ * </p>
+ * <p>
+ * An instance of this class is safe for use by multiple threads. Clients can
+ * use this class as it stands or subclass it as circumstances warrant.
+ * </p>
+ *
+ * @since 1.8
+ */
+public class RopeBuffer
+    extends Buffer
+{
+    /**
+     * Creates a new buffer instance that is initially empty.
+     * <p>
+     * It is the client responsibility to {@link IBuffer#release() release}
+     * the created buffer after it is no longer needed.
+     * </p>
+     */
+    public RopeBuffer()
+    {
+        super();
+    }
+
+    /**
+     * Creates a new buffer instance and initializes it with the given contents.
+     * <p>
+     * It is the client responsibility to {@link IBuffer#release() release}
+     * the created buffer after it is no longer needed.
+     * </p>
+     *
+     * @param contents initial contents
+     */
+    public RopeBuffer(String contents)
+    {
+        super(contents);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation returns a snapshot that shares the current rope
+     * of the buffer.
+     * </p>
+     */
+    @Override
+    public ISnapshot getSnapshot()
+    {
+        return new RopeSnapshot(
+            ((RopeDocument)getDocument()).getTextStore().getRope());
+    }
+
+    @Override
+    protected final IDocument createEmptyDocument()
+    {
+        IDocument document = new RopeDocument();
+        ((ISynchronizable)document).setLockObject(new Object());
+        return document;
+    }
+
+    /*
+     * Reading the text does not need to be synchronized, since the text store
+     * is backed by an immutable rope; modifications are synchronized on the
+     * lock object to protect the line tracker and the positions.
+     */
+    private static class RopeDocument
+        extends Document
+        implements ISynchronizable
+    {
+        private final RopeTextStore textStore = new RopeTextStore();
+        private volatile Object lockObject;
+
+        RopeDocument()
+        {
+            setTextStore(textStore);
+        }
+
+        RopeTextStore getTextStore()
+        {
+            return textStore;
+        }
+
+        @Override
+        public void setLockObject(Object lockObject)
+        {
+            this.lockObject = lockObject;
+        }
+
+        @Override
+        public Object getLockObject()
+        {
+            return lockObject;
+        }
+
+        @Override
+        public String get()
+        {
+            return textStore.getRope().toString();
+        }
+
+        @Override
+        public void replace(int offset, int length, String text,
+            long modificationStamp) throws BadLocationException
+        {
+            Object lock = lockObject;
+            if (lock == null)
+            {
+                super.replace(offset, length, text, modificationStamp);
+                return;
+            }
+            synchronized (lock)
+            {
+                super.replace(offset, length, text, modificationStamp);
+            }
+        }
+
+        @Override
+        public void set(String text, long modificationStamp)
+        {
+            Object lock = lockObject;
+            if (lock == null)
+            {
+                super.set(text, modificationStamp);
+                return;
+            }
+            synchronized (lock)
+            {
+                super.set(text, modificationStamp);
+            }
+        }
+    }
+
+    private static final class RopeSnapshot
+        extends Snapshot
+    {
+        private final Rope rope;
+
+        RopeSnapshot(Rope rope)
+        {
+            this.rope = rope;
+        }
+
+        @Override
+        public String getContents()
+        {
+            return rope.toString();
+        }
+
+        @Override
+        protected Boolean predictEquality(Snapshot other)
+        {
+            if (other instanceof RopeSnapshot)
+                return ((RopeSnapshot)other).rope.contentEquals(rope);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.buffer;
+
+import org.eclipse.jface.text.ITextStore;
+
+/**
+ * An {@link ITextStore} backed by an immutable {@link Rope}. Each modification
+ * of the store replaces the current rope with a new one, so the rope obtained
+ * via {@link #getRope()} represents a stable view of the store contents at the
+ * time of the call.
+ */
+final class RopeTextStore
+    implements ITextStore
+{
+    private volatile Rope rope = Rope.EMPTY;
+
+    /**
+     * Returns the rope representing the current contents of this store.
+     *
+     * @return the current rope (never <code>null</code>)
+     */
+    Rope getRope()
+    {
+        return rope;
+    }
+
+    @Override
+    public char get(int offset)
+    {
+        return rope.charAt(offset);
+    }
+
+    @Override
+    public String get(int offset, int length)
+    {
+        return rope.substring(offset, offset + length);
+    }
+
+    @Override
+    public int getLength()
+    {
+        return rope.length();
+    }
+
+    @Override
+    public void replace(int offset, int length, String text)
+    {
+        rope = rope.replace(offset, length, text == null ? "" : text); //$NON-NLS-1$
+    }
+
+    @Override
+    public void set(String text)
+    {
+        rope = Rope.of(text == null ? "" : text); //$NON-NLS-1$
+    }
+}
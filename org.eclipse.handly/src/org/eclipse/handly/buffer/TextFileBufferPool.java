@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.buffer;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.ITextFileBufferManager;
+import org.eclipse.core.filebuffers.LocationKind;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.handly.internal.Activator;
+import org.eclipse.handly.util.BoundedLruCache;
+
+/**
+ * A bounded pool that keeps the underlying file buffers of recently used
+ * {@link TextFileBuffer}s connected for a short time after the buffers have
+ * been released. While a file buffer is kept alive by the pool, creating
+ * a new <code>TextFileBuffer</code> for the same file just connects to the
+ * existing file buffer and does not need to read and decode the file again.
+ * <p>
+ * A file buffer is disconnected by the pool when its time to live expires,
+ * when it is the least recently used one and the pool is full, when the pool
+ * is {@link #clear() cleared}, or when the JVM is running low on memory.
+ * The time to live of a file buffer is restarted each time it is {@link
+ * #keepAlive(TextFileBuffer) kept alive}.
+ * </p>
+ * <p>
+ * Note that unsaved changes to a file buffer are retained while the pool
+ * keeps it alive, i.e. they are not discarded when the last client releases
+ * the buffer, but only when the pool disconnects it. Clients that modify
+ * pooled buffers should save or revert their changes.
+ * </p>
+ * <p>
+ * An instance of this class is safe for use by multiple threads.
+ * </p>
+ *
+ * @see org.eclipse.handly.model.Elements#TEXT_FILE_BUFFER_POOL
+ * @since 1.8
+ */
+public final class TextFileBufferPool
+{
+    private final Cache cache;
+    private final long timeToLive;
+    private final Job expiryJob;
+    private SoftReference<Object> memorySentinel = newMemorySentinel();
+
+    /**
+     * Creates a new pool that is initially empty.
+     *
+     * @param maxSize the maximum number of file buffers kept alive by the pool
+     * @param timeToLive the time (in milliseconds) a file buffer is kept alive
+     *  after it was last used
+     * @throws IllegalArgumentException if <code>maxSize &lt; 1</code>
+     *  or <code>timeToLive &lt;= 0</code>
+     */
+    public TextFileBufferPool(int maxSize, long timeToLive)
+    {
+        if (timeToLive <= 0)
+            throw new IllegalArgumentException();
+        this.cache = new Cache(maxSize);
+        this.timeToLive = timeToLive;
+        this.expiryJob = new ExpiryJob();
+    }
+
+    /**
+     * Returns the maximum number of file buffers kept alive by this pool.
+     *
+     * @return the maximum size of the pool
+     */
+    public int getMaxSize()
+    {
+        return cache.maxSize();
+    }
+
+    /**
+     * Returns the time (in milliseconds) a file buffer is kept alive by this
+     * pool after it was last used.
+     *
+     * @return the time to live
+     */
+    public long getTimeToLive()
+    {
+        return timeToLive;
+    }
+
+    /**
+     * Returns the number of file buffers currently kept alive by this pool.
+     *
+     * @return the size of the pool
+     */
+    public synchronized int size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Keeps the underlying file buffer of the given text file buffer connected
+     * until its time to live expires or it is evicted from this pool. If the
+     * file buffer is already kept alive by the pool, its time to live is
+     * restarted.
+     *
+     * @param buffer not <code>null</code>
+     * @throws CoreException if the file buffer could not be connected
+     * @throws IllegalStateException if the given buffer is no longer
+     *  accessible
+     */
+    public void keepAlive(TextFileBuffer buffer) throws CoreException
+    {
+        ICoreTextFileBufferProvider bufferProvider =
+            buffer.getCoreTextFileBufferProvider();
+        ITextFileBufferManager bufferManager =
+            bufferProvider.getBufferManager();
+        ITextFileBuffer fileBuffer = bufferProvider.getBuffer();
+        Key key = new Key(bufferManager, fileBuffer.getLocation(),
+            fileBuffer.getFileStore());
+        List<ICoreTextFileBufferProvider> evicted = new ArrayList<>();
+        try
+        {
+            long expiryTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(
+                timeToLive);
+            synchronized (this)
+            {
+                evictStale(evicted);
+                KeptBuffer kept = cache.get(key);
+                if (kept != null)
+                {
+                    kept.expiryTime = expiryTime;
+                    return;
+                }
+            }
+            ICoreTextFileBufferProvider provider = key.newProvider();
+            provider.connect(null);
+            synchronized (this)
+            {
+                KeptBuffer kept = cache.get(key);
+                if (kept != null) // kept alive concurrently
+                {
+                    kept.expiryTime = expiryTime;
+                    evicted.add(provider);
+                }
+                else
+                {
+                    cache.put(key, new KeptBuffer(key, provider, expiryTime));
+                    evicted.addAll(cache.evicted);
+                    cache.evicted.clear();
+                }
+            }
+            if (expiryJob.getState() != Job.SLEEPING)
+                expiryJob.schedule(timeToLive);
+        }
+        finally
+        {
+            disconnect(evicted);
+        }
+    }
+
+    /**
+     * Disconnects all file buffers kept alive by this pool.
+     */
+    public void clear()
+    {
+        List<ICoreTextFileBufferProvider> evicted = new ArrayList<>();
+        synchronized (this)
+        {
+            clear(evicted);
+        }
+        expiryJob.cancel();
+        disconnect(evicted);
+    }
+
+    /*
+     * Removes the expired entries, or all entries if the JVM is running
+     * low on memory. Must be called while holding the lock on this pool.
+     */
+    private void evictStale(List<ICoreTextFileBufferProvider> evicted)
+    {
+        if (memorySentinel.get() == null)
+        {
+            clear(evicted);
+            memorySentinel = newMemorySentinel();
+            return;
+        }
+        long now = System.nanoTime();
+        KeptBuffer kept;
+        // the LRU entry is always the one that expires first
+        while ((kept = cache.peekLru()) != null && now - kept.expiryTime >= 0)
+        {
+            cache.remove(kept.key);
+            evicted.add(kept.provider);
+        }
+    }
+
+    private void clear(List<ICoreTextFileBufferProvider> evicted)
+    {
+        for (KeptBuffer kept : cache.snapshot().values())
+            evicted.add(kept.provider);
+        cache.clear();
+    }
+
+    private static void disconnect(List<ICoreTextFileBufferProvider> providers)
+    {
+        for (ICoreTextFileBufferProvider provider : providers)
+        {
+            try
+            {
+                provider.disconnect(null);
+            }
+            catch (CoreException e)
+            {
+                Activator.logError(e);
+            }
+        }
+    }
+
+    private static SoftReference<Object> newMemorySentinel()
+    {
+        return new SoftReference<>(new Object());
+    }
+
+    private static final class Key
+    {
+        final ITextFileBufferManager bufferManager;
+        final IPath location;
+        final IFileStore fileStore;
+
+        Key(ITextFileBufferManager bufferManager, IPath location,
+            IFileStore fileStore)
+        {
+            this.bufferManager = bufferManager;
+            this.location = location;
+            this.fileStore = location != null ? null : fileStore;
+        }
+
+        ICoreTextFileBufferProvider newProvider()
+        {
+            if (location != null)
+                return ICoreTextFileBufferProvider.forLocation(location,
+                    LocationKind.NORMALIZE, bufferManager);
+            return ICoreTextFileBufferProvider.forFileStore(fileStore,
+                bufferManager);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + bufferManager.hashCode();
+            result = prime * result + (location == null ? 0
+                : location.hashCode());
+            result = prime * result + (fileStore == null ? 0
+                : fileStore.hashCode());
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key)obj;
+            if (bufferManager != other.bufferManager)
+                return false;
+            if (location == null)
+            {
+                if (other.location != null)
+                    return false;
+            }
+            else if (!location.equals(other.location))
+                return false;
+            if (fileStore == null)
+            {
+                if (other.fileStore != null)
+                    return false;
+            }
+            else if (!fileStore.equals(other.fileStore))
+                return false;
+            return true;
+        }
+    }
+
+    private static final class KeptBuffer
+    {
+        final Key key;
+        final ICoreTextFileBufferProvider provider;
+        long expiryTime;
+
+        KeptBuffer(Key key, ICoreTextFileBufferProvider provider,
+            long expiryTime)
+        {
+            this.key = key;
+            this.provider = provider;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    private static final class Cache
+        extends BoundedLruCache<Key, KeptBuffer>
+    {
+        final List<ICoreTextFileBufferProvider> evicted = new ArrayList<>();
+
+        Cache(int maxSize)
+        {
+            super(maxSize);
+        }
+
+        KeptBuffer peekLru()
+        {
+            Entry<Key, KeptBuffer> entry = getLruEntry();
+            return entry == null ? null : entry.value;
+        }
+
+        @Override
+        protected void evict(Entry<Key, KeptBuffer> entry)
+        {
+            super.evict(entry);
+            evicted.add(entry.value.provider);
+        }
+    }
+
+    private class ExpiryJob
+        extends Job
+    {
+        ExpiryJob()
+        {
+            super(""); //$NON-NLS-1$
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor)
+        {
+            List<ICoreTextFileBufferProvider> evicted = new ArrayList<>();
+            long delay = -1;
+            synchronized (TextFileBufferPool.this)
+            {
+                evictStale(evicted);
+                KeptBuffer kept = cache.peekLru();
+                if (kept != null)
+                    delay = Math.max(TimeUnit.NANOSECONDS.toMillis(
+                        kept.expiryTime - System.nanoTime()), 0) + 1;
+            }
+            disconnect(evicted);
+            if (delay >= 0)
+                schedule(delay);
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2020 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -37,6 +37,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.handly.buffer.IBuffer;
+import org.eclipse.handly.buffer.TextFileBufferPool;
 import org.eclipse.handly.context.IContext;
 import org.eclipse.handly.internal.Activator;
 import org.eclipse.handly.model.impl.IElementImpl;
@@ -1455,6 +1456,10 @@ public class Elements
      *  performed even if the working copy buffer has not been modified since
      *  the last time the working copy was reconciled.
      * </li>
+     * <li>
+     * {@link #PREEMPTIBLE_RECONCILING} - Indicates whether reconciling may be
+     *  preempted by a subsequent modification of the working copy buffer.
+     * </li>
      * </ul>
      *
      * @param sourceFile not <code>null</code>
@@ -1482,6 +1487,23 @@ public class Elements
         Elements.class.getName() + ".forceReconciling", //$NON-NLS-1$
         Boolean.class).withDefault(false);
 
+    /**
+     * Indicates whether reconciling may be preempted by a subsequent
+     * modification of the working copy buffer. A preempted reconcile is
+     * abandoned without updating the working copy or sending out a delta
+     * notification, and <code>OperationCanceledException</code> is thrown;
+     * the working copy still needs reconciling. Clients should only set this
+     * option if the subsequent modification is known to cause another
+     * reconcile, as is the case with reconcilers. Default value:
+     * <code>false</code>.
+     *
+     * @see #reconcile(ISourceFile, IContext, IProgressMonitor)
+     * @since 1.8
+     */
+    public static final Property<Boolean> PREEMPTIBLE_RECONCILING =
+        Property.get(Elements.class.getName() + ".preemptibleReconciling", //$NON-NLS-1$
+            Boolean.class).withDefault(false);
+
     /**
      * Returns a buffer opened for the source file. Note that buffers may
      * be shared by multiple clients, so the returned buffer may have unsaved
@@ -1534,6 +1556,10 @@ public class Elements
      * {@link #CREATE_BUFFER} - Indicates whether a new buffer should be created
      * if none already exists for the source file.
      * </li>
+     * <li>
+     * {@link #TEXT_FILE_BUFFER_POOL} - Specifies a pool that is to keep alive
+     * the underlying file buffer after the returned buffer is released.
+     * </li>
      * </ul>
      *
      * @param sourceFile not <code>null</code>
@@ -1564,6 +1590,19 @@ public class Elements
         Elements.class.getName() + ".createBuffer", Boolean.class).withDefault( //$NON-NLS-1$
             true);
 
+    /**
+     * Specifies a pool that is to keep alive the underlying file buffer of
+     * a buffer opened for a source file, so that repeatedly getting a buffer
+     * for the same source file does not need to read the file each time.
+     * Default value: <code>null</code>.
+     *
+     * @see #getBuffer(ISourceFile, IContext, IProgressMonitor)
+     * @since 1.8
+     */
+    public static final Property<TextFileBufferPool> TEXT_FILE_BUFFER_POOL =
+        Property.get(Elements.class.getName() + ".textFileBufferPool", //$NON-NLS-1$
+            TextFileBufferPool.class);
+
     private Elements()
     {
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2020 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -15,6 +15,8 @@ package org.eclipse.handly.model.impl.support;
 import static org.eclipse.handly.context.Contexts.of;
 import static org.eclipse.handly.context.Contexts.with;
 import static org.eclipse.handly.model.Elements.CREATE_BUFFER;
+import static org.eclipse.handly.model.Elements.PREEMPTIBLE_RECONCILING;
+import static org.eclipse.handly.model.Elements.TEXT_FILE_BUFFER_POOL;
 import static org.eclipse.handly.model.IElementDeltaConstants.CHANGED;
 import static org.eclipse.handly.model.IElementDeltaConstants.F_WORKING_COPY;
 import static org.eclipse.handly.util.ToStringOptions.FORMAT_STYLE;
@@ -35,6 +37,7 @@ import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.handly.buffer.IBuffer;
 import org.eclipse.handly.buffer.ICoreTextFileBufferProvider;
 import org.eclipse.handly.buffer.TextFileBuffer;
+import org.eclipse.handly.buffer.TextFileBufferPool;
 import org.eclipse.handly.context.Context;
 import org.eclipse.handly.context.IContext;
 import org.eclipse.handly.internal.Activator;
@@ -219,7 +222,9 @@ public interface ISourceFileImplSupport
         if (info.created)
             return info.getContext();
         // special case: wc creation is in progress on the current thread
-        if (this.equals(ReconcileOperation.CURRENTLY_RECONCILED.get()))
+        ReconcileOperation operation =
+            ReconcileOperation.CURRENTLY_RECONCILED.get();
+        if (operation != null && this.equals(operation.sourceFile))
             return info.getContext();
         return null;
     }
@@ -301,6 +306,27 @@ public interface ISourceFileImplSupport
         }
     }
 
+    /**
+     * Returns the number of times reconciling of this working copy has been
+     * preempted by a subsequent modification of the working copy buffer.
+     * <p>
+     * This method is called internally; it is not intended to be invoked by
+     * clients.
+     * </p>
+     *
+     * @return the number of preempted reconciles, or <code>0</code>
+     *  if this source file is not a working copy
+     * @see Elements#PREEMPTIBLE_RECONCILING
+     * @since 1.8
+     */
+    default long getReconcilePreemptionCount_()
+    {
+        WorkingCopyInfo info = getElementManager_().peekAtWorkingCopyInfo(this);
+        if (info == null)
+            return 0;
+        return info.preemptionCount.get();
+    }
+
     /**
      * Returns a reconcile operation for this source file.
      * <p>
@@ -507,6 +533,11 @@ public interface ISourceFileImplSupport
      * Indicates whether a new buffer should be created if none already exists
      * for the underlying file.
      * </li>
+     * <li>
+     * {@link org.eclipse.handly.model.Elements#TEXT_FILE_BUFFER_POOL
+     * TEXT_FILE_BUFFER_POOL} - Specifies a pool that is to keep alive
+     * the underlying file buffer after the returned buffer is released.
+     * </li>
      * </ul>
      * <p>
      * This implementation returns a buffer opened for the underlying
@@ -516,7 +547,8 @@ public interface ISourceFileImplSupport
      * <code>IFileStore</code>, an assertion error is thrown.
      * If <code>CREATE_BUFFER</code> is <code>false</code> in the given context
      * and there is currently no buffer opened for the file, <code>null</code>
-     * is returned.
+     * is returned. If a <code>TEXT_FILE_BUFFER_POOL</code> is specified
+     * in the given context, the pool is asked to keep alive the file buffer.
      * </p>
      *
      * @param context the operation context (not <code>null</code>)
@@ -556,7 +588,23 @@ public interface ISourceFileImplSupport
         {
             return null;
         }
-        return new TextFileBuffer(provider, monitor);
+        TextFileBuffer buffer = new TextFileBuffer(provider, monitor);
+        TextFileBufferPool pool = context.get(TEXT_FILE_BUFFER_POOL);
+        if (pool != null)
+        {
+            boolean f = false;
+            try
+            {
+                pool.keepAlive(buffer);
+                f = true;
+            }
+            finally
+            {
+                if (!f)
+                    buffer.release();
+            }
+        }
+        return buffer;
     }
 
     /**
@@ -648,6 +696,14 @@ public interface ISourceFileImplSupport
 
         buildSourceStructure_(context, monitor);
 
+        ReconcileOperation operation =
+            ReconcileOperation.CURRENTLY_RECONCILED.get();
+        if (operation != null && this.equals(operation.sourceFile))
+        {
+            // the built structure has not been published yet
+            operation.checkCanceled(context, monitor);
+        }
+
         Map<IElement, Object> newElements = context.get(NEW_ELEMENTS);
         Object body = newElements.get(this);
         if (body instanceof SourceElementBody)
@@ -783,8 +839,8 @@ public interface ISourceFileImplSupport
             ReconcileOperation.class.getName() + ".reconcilingForced", //$NON-NLS-1$
             Boolean.class).withDefault(false);
 
-        static final ThreadLocal<ISourceFileImplSupport> CURRENTLY_RECONCILED =
-            new ThreadLocal<>(); // the source file being reconciled
+        static final ThreadLocal<ReconcileOperation> CURRENTLY_RECONCILED =
+            new ThreadLocal<>(); // the operation reconciling structure
 
         /**
          * This operation's source file.
@@ -846,6 +902,14 @@ public interface ISourceFileImplSupport
          * #shouldReconcileStructure(IContext) shouldReconcileStructure}
          * returns <code>true</code>.
          * </p>
+         * <p>
+         * Since 1.8, if {@link Elements#PREEMPTIBLE_RECONCILING} is set in
+         * the given context, reconciling is abandoned with an <code>
+         * OperationCanceledException</code> as soon as it is found, at a stage
+         * boundary, that the working copy has been {@link #isPreempted(IContext)
+         * preempted}. Preemption can occur until the new structure of the
+         * working copy is published; stale intermediate results are discarded.
+         * </p>
          *
          * @param context the operation context (not <code>null</code>)
          * @param monitor a progress monitor, or <code>null</code>
@@ -885,6 +949,66 @@ public interface ISourceFileImplSupport
             return isInitialReconcile(context) || !isReconcilingForced(context);
         }
 
+        /**
+         * Returns whether reconciling has been preempted by a subsequent
+         * modification of the working copy buffer, so the result of
+         * reconciling would be stale.
+         * <p>
+         * This implementation returns <code>true</code> if, and only if,
+         * reconciling is {@link Elements#PREEMPTIBLE_RECONCILING preemptible},
+         * this is not the {@link #isInitialReconcile(IContext) initial
+         * reconcile}, and the current snapshot of the working copy buffer
+         * is not equal to the {@link #SOURCE_SNAPSHOT source snapshot}
+         * specified in the given context.
+         * </p>
+         *
+         * @param context the operation context (not <code>null</code>)
+         * @return <code>true</code> if reconciling has been preempted,
+         *  and <code>false</code> otherwise
+         * @since 1.8
+         */
+        protected boolean isPreempted(IContext context)
+        {
+            if (!context.getOrDefault(PREEMPTIBLE_RECONCILING)
+                || isInitialReconcile(context))
+                return false;
+            ISnapshot snapshot = context.get(SOURCE_SNAPSHOT);
+            if (snapshot == null)
+                return false;
+            WorkingCopyInfo info =
+                sourceFile.getElementManager_().peekAtWorkingCopyInfo(
+                    sourceFile);
+            if (info == null)
+                return false;
+            return !snapshot.isEqualTo(info.getBuffer().getSnapshot());
+        }
+
+        /**
+         * Checks at a stage boundary whether reconciling has been canceled
+         * or {@link #isPreempted(IContext) preempted}.
+         *
+         * @param context the operation context (not <code>null</code>)
+         * @param monitor a progress monitor, or <code>null</code>
+         * @throws OperationCanceledException if reconciling has been canceled
+         *  or preempted
+         * @since 1.8
+         */
+        protected final void checkCanceled(IContext context,
+            IProgressMonitor monitor)
+        {
+            if (monitor != null && monitor.isCanceled())
+                throw new OperationCanceledException();
+            if (isPreempted(context))
+            {
+                WorkingCopyInfo info =
+                    sourceFile.getElementManager_().peekAtWorkingCopyInfo(
+                        sourceFile);
+                if (info != null)
+                    info.preemptionCount.incrementAndGet();
+                throw new OperationCanceledException();
+            }
+        }
+
         /**
          * Returns whether this is initial reconcile.
          *
@@ -970,9 +1094,10 @@ public interface ISourceFileImplSupport
             {
                 throw new IllegalArgumentException();
             }
+            checkCanceled(context, monitor);
             if (CURRENTLY_RECONCILED.get() != null)
                 throw new AssertionError(); // should never happen
-            CURRENTLY_RECONCILED.set(sourceFile);
+            CURRENTLY_RECONCILED.set(this);
             try
             {
                 sourceFile.open_(with(of(FORCE_OPEN, true), context), monitor);
@@ -1046,6 +1171,8 @@ public interface ISourceFileImplSupport
                 super.reconcile(context, monitor);
             else
             {
+                checkCanceled(context, monitor);
+
                 ElementChangeRecorder recorder = newChangeRecorder();
                 recorder.beginRecording(sourceFile);
 
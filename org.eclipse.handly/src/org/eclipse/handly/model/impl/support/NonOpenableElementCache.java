@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.model.impl.support;
+
+import static org.eclipse.handly.context.Contexts.of;
+import static org.eclipse.handly.model.impl.IElementImplExtension.CLOSE_HINT;
+import static org.eclipse.handly.model.impl.IElementImplExtension.CloseHint.CACHE_OVERFLOW;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.IElementImplExtension;
+
+/**
+ * A bounded LRU cache of the bodies of non-openable elements, such as
+ * source constructs, that is intended to be used in advanced implementations
+ * of {@link IBodyCache}.
+ * <p>
+ * Bodies of non-openable elements cannot be evicted on their own, since such
+ * elements are only (re)built along with their openable ancestor. Instead,
+ * when this cache is full, the openable elements the least recently used
+ * entries belong to are {@link IElementImplExtension#close_(
+ * org.eclipse.handly.context.IContext) closed}, which is expected to remove
+ * all of their descendants from the cache. The openable element whose
+ * descendants are being {@link #putChildren(IElement, Map) put} is never
+ * closed, and the entries of an openable element that refuses to close
+ * (e.g., a working copy) are skipped for the rest of the eviction pass;
+ * the cache overflows if necessary.
+ * </p>
+ * <p>
+ * The elements in this cache and their ancestors are expected to implement
+ * {@link IElementImplSupport}. An element that does not implement it is
+ * treated as openable.
+ * </p>
+ * <p>
+ * This implementation is not thread-safe. If multiple threads access the cache
+ * concurrently, it must be synchronized externally.
+ * </p>
+ *
+ * @since 1.8
+ */
+public class NonOpenableElementCache
+    extends ElementCache
+{
+    private IElement openableBeingOpened;
+    private Set<IElement> retainedOpenables;
+
+    /**
+     * Constructs an empty <code>NonOpenableElementCache</code> with the given
+     * maximum size and a default {@link #getLoadFactor() load factor}.
+     *
+     * @param maxSize the maximum size of the cache (the bound)
+     * @throws IllegalArgumentException if <code>maxSize &lt; 1</code>
+     */
+    public NonOpenableElementCache(int maxSize)
+    {
+        super(maxSize);
+    }
+
+    /**
+     * Puts the bodies of the descendants of the given openable element
+     * that is being opened. Ensures that there is enough room for the
+     * descendants, so that they can be put without closing the openable
+     * element itself. The body of the openable element is not put into
+     * this cache, even if it is contained in the given map.
+     *
+     * @param openable the openable element being opened
+     *  (not <code>null</code>)
+     * @param elementBodies a map of the elements to their bodies
+     *  (not <code>null</code>)
+     */
+    public void putChildren(IElement openable,
+        Map<? extends IElement, Object> elementBodies)
+    {
+        if (openable == null)
+            throw new IllegalArgumentException();
+        if (elementBodies == null)
+            throw new IllegalArgumentException();
+        int childCount = elementBodies.size();
+        if (elementBodies.containsKey(openable))
+            childCount--;
+        ensureMaxSize(childCount, openable);
+        openableBeingOpened = openable;
+        try
+        {
+            elementBodies.forEach((element, body) ->
+            {
+                if (!element.equals(openable))
+                    put(element, body);
+            });
+        }
+        finally
+        {
+            openableBeingOpened = null;
+        }
+    }
+
+    @Override
+    protected void makeSpace(int sizeNeeded)
+    {
+        retainedOpenables = new HashSet<>();
+        try
+        {
+            super.makeSpace(sizeNeeded);
+        }
+        finally
+        {
+            retainedOpenables = null;
+        }
+    }
+
+    /**
+     * Attempts to evict an existing entry from this cache in response to
+     * request to {@link #makeSpace(int) makeSpace}.
+     * <p>
+     * This implementation closes the nearest openable ancestor of the entry's
+     * element with <code>of(CLOSE_HINT, CACHE_OVERFLOW)</code>, unless that
+     * ancestor is the openable element being opened or has already refused
+     * to close during the current eviction pass.
+     * </p>
+     */
+    @Override
+    protected void evict(Entry<IElement, Object> entry)
+    {
+        IElement openable = getOpenable(entry.key);
+        if (openable == null || openable.equals(openableBeingOpened))
+            return;
+        if (retainedOpenables != null && retainedOpenables.contains(openable))
+            return;
+        ((IElementImplExtension)openable).close_(of(CLOSE_HINT,
+            CACHE_OVERFLOW));
+        if (retainedOpenables != null && entryByKey(entry.key) != null)
+            retainedOpenables.add(openable); // refused to close
+    }
+
+    private static IElement getOpenable(IElement element)
+    {
+        while (element instanceof IElementImplSupport
+            && !((IElementImplSupport)element).isOpenable_())
+        {
+            element = Elements.getParent(element);
+        }
+        return element;
+    }
+}
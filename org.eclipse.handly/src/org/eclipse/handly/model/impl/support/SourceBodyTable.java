@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.model.impl.support;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * A compact representation of the bodies of source constructs, typically
+ * of all source constructs of a source file. Instead of a {@link
+ * SourceElementBody} per source construct, the table keeps the text ranges,
+ * children and properties of the source constructs in a few flat arrays.
+ * A body equivalent to the original one is created on demand by {@link
+ * #getBody(IElement)}; in particular, it has the same content as far as
+ * {@link SourceElementBody#findContentChange findContentChange} is concerned.
+ * <p>
+ * The table is intended for large source files, where the bodies of source
+ * constructs can take a considerable amount of memory. A model can store
+ * the table along with the body of the source file instead of storing
+ * the bodies of source constructs in the body cache, and use the table
+ * to look up those bodies.
+ * </p>
+ * <p>
+ * An instance of this class is immutable and can safely be used by multiple
+ * threads. The bodies returned by the table are new objects not shared with
+ * other clients.
+ * </p>
+ *
+ * @since 1.8
+ */
+public final class SourceBodyTable
+{
+    private static final int FULL_RANGE = 0;
+    private static final int IDENTIFYING_RANGE = 2;
+    private static final int RANGES_PER_ROW = 4;
+
+    private final SourceElementBody owner;
+    private final IElement[] elements;
+    private final int[] ranges;
+    private final int[] childStarts;
+    private final IElement[] children;
+    private final Class<?>[] childTypes;
+    private final int[] propertyStarts;
+    private final String[] propertyNames;
+    private final Object[] propertyValues;
+    private final int[] index; // open addressing; holds row + 1, 0 if empty
+
+    /**
+     * Moves the bodies of the descendants of the given element from the given
+     * map into a new table. Only bodies of exactly the {@link SourceElementBody}
+     * class that are based on the same snapshot as the given element's body are
+     * moved, along with such bodies of their descendants; other bodies remain
+     * in the map. The bodies created by the table are based on the snapshot
+     * the given element's body is based on at the time of creation.
+     *
+     * @param element the element whose descendants are to be compacted
+     *  (not <code>null</code>)
+     * @param elementBodies element handle/body relationships
+     *  (not <code>null</code>). It must contain a {@link SourceElementBody}
+     *  for the given element
+     * @return the created table (never <code>null</code>)
+     */
+    public static SourceBodyTable compact(IElement element,
+        Map<IElement, Object> elementBodies)
+    {
+        Object body = elementBodies.get(element);
+        if (!(body instanceof SourceElementBody))
+            throw new IllegalArgumentException();
+        SourceElementBody owner = (SourceElementBody)body;
+        List<IElement> elements = new ArrayList<>();
+        List<SourceElementBody> bodies = new ArrayList<>();
+        collect(owner, elementBodies, owner, elements, bodies);
+        SourceBodyTable table = new SourceBodyTable(owner, elements, bodies);
+        for (IElement e : elements)
+            elementBodies.remove(e);
+        return table;
+    }
+
+    private SourceBodyTable(SourceElementBody owner, List<IElement> elements,
+        List<SourceElementBody> bodies)
+    {
+        this.owner = owner;
+        int size = elements.size();
+        this.elements = elements.toArray(new IElement[size]);
+        ranges = new int[size * RANGES_PER_ROW];
+        childStarts = new int[size + 1];
+        childTypes = new Class<?>[size];
+        propertyStarts = new int[size + 1];
+        int childCount = 0;
+        int propertyCount = 0;
+        for (SourceElementBody body : bodies)
+        {
+            childCount += body.getChildren().length;
+            propertyCount += body.getPropertyNames().size();
+        }
+        children = new IElement[childCount];
+        propertyNames = new String[propertyCount];
+        propertyValues = new Object[propertyCount];
+        index = new int[Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1];
+        childCount = 0;
+        propertyCount = 0;
+        for (int row = 0; row < size; row++)
+        {
+            SourceElementBody body = bodies.get(row);
+            setRange(row * RANGES_PER_ROW + FULL_RANGE, body.getFullRange());
+            setRange(row * RANGES_PER_ROW + IDENTIFYING_RANGE,
+                body.getIdentifyingRange());
+            IElement[] rowChildren = body.getChildren();
+            System.arraycopy(rowChildren, 0, children, childCount,
+                rowChildren.length);
+            childCount += rowChildren.length;
+            childStarts[row + 1] = childCount;
+            childTypes[row] = rowChildren.getClass().getComponentType();
+            Set<String> names = body.getPropertyNames();
+            for (String name : names)
+            {
+                propertyNames[propertyCount] = name;
+                propertyValues[propertyCount] = body.getPropertyValue(name);
+                propertyCount++;
+            }
+            propertyStarts[row + 1] = propertyCount;
+            int i = hash(this.elements[row]);
+            while (index[i] != 0)
+                i = (i + 1) & (index.length - 1);
+            index[i] = row + 1;
+        }
+    }
+
+    /**
+     * Returns the number of source construct bodies in this table.
+     *
+     * @return the size of the table
+     */
+    public int size()
+    {
+        return elements.length;
+    }
+
+    /**
+     * Returns a new body for the given element based on the content of this
+     * table, or <code>null</code> if the table contains no body for the element.
+     *
+     * @param element may be <code>null</code>
+     * @return a new body for the given element, or <code>null</code> if the
+     *  table contains no body for the element
+     */
+    public SourceElementBody getBody(IElement element)
+    {
+        int row = indexOf(element);
+        if (row < 0)
+            return null;
+        SourceElementBody body = new SourceElementBody();
+        body.setSnapshot(owner.getSnapshot());
+        body.setFullRange(getRange(row * RANGES_PER_ROW + FULL_RANGE));
+        body.setIdentifyingRange(getRange(row * RANGES_PER_ROW
+            + IDENTIFYING_RANGE));
+        for (int i = propertyStarts[row]; i < propertyStarts[row + 1]; i++)
+            body.setPropertyValue(propertyNames[i], propertyValues[i]);
+        int start = childStarts[row];
+        int length = childStarts[row + 1] - start;
+        IElement[] rowChildren = (IElement[])Array.newInstance(childTypes[row],
+            length);
+        System.arraycopy(children, start, rowChildren, 0, length);
+        body.setChildren(rowChildren);
+        return body;
+    }
+
+    private static void collect(SourceElementBody parentBody,
+        Map<IElement, Object> elementBodies, SourceElementBody owner,
+        List<IElement> elements, List<SourceElementBody> bodies)
+    {
+        for (IElement child : parentBody.getChildren())
+        {
+            Object body = elementBodies.get(child);
+            if (body == null || body.getClass() != SourceElementBody.class)
+                continue;
+            SourceElementBody childBody = (SourceElementBody)body;
+            if (childBody.getSnapshot() != owner.getSnapshot())
+                continue;
+            elements.add(child);
+            bodies.add(childBody);
+            collect(childBody, elementBodies, owner, elements, bodies);
+        }
+    }
+
+    private int indexOf(IElement element)
+    {
+        if (element == null)
+            return -1;
+        int i = hash(element);
+        int row;
+        while ((row = index[i] - 1) >= 0)
+        {
+            if (elements[row].equals(element))
+                return row;
+            i = (i + 1) & (index.length - 1);
+        }
+        return -1;
+    }
+
+    private int hash(IElement element)
+    {
+        int h = element.hashCode();
+        return (h ^ (h >>> 16)) & (index.length - 1);
+    }
+
+    private void setRange(int i, TextRange range)
+    {
+        if (range == null)
+            ranges[i] = -1;
+        else
+        {
+            ranges[i] = range.getOffset();
+            ranges[i + 1] = range.getLength();
+        }
+    }
+
+    private TextRange getRange(int i)
+    {
+        if (ranges[i] < 0)
+            return null;
+        return new TextRange(ranges[i], ranges[i + 1]);
+    }
+}
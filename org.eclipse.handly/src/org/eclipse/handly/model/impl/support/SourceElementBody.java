@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -112,7 +112,11 @@ public class SourceElementBody
      */
     public <T> void set(Property<T> p, T value)
     {
-        String name = p.getName();
+        setPropertyValue(p.getName(), value);
+    }
+
+    void setPropertyValue(String name, Object value)
+    {
         int length = properties.length;
         if (length == 0)
             properties = new InternalProperty[] { new InternalProperty(name,
@@ -0,0 +1,494 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.refactoring;
+
+import static org.eclipse.handly.context.Contexts.EMPTY_CONTEXT;
+import static org.eclipse.handly.model.Elements.getBuffer;
+import static org.eclipse.handly.model.Elements.toDisplayString;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.handly.buffer.BufferChange;
+import org.eclipse.handly.buffer.IBuffer;
+import org.eclipse.handly.buffer.IBufferChange;
+import org.eclipse.handly.buffer.SaveMode;
+import org.eclipse.handly.internal.Activator;
+import org.eclipse.handly.model.ISourceFile;
+import org.eclipse.handly.snapshot.ISnapshot;
+import org.eclipse.handly.snapshot.StaleSnapshotException;
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+
+/**
+ * A {@link CompositeChange} that applies a number of {@link SourceFileChange}s
+ * as a batch.
+ * <p>
+ * Unlike a plain composite change, which performs its children one by one,
+ * this change first acquires the buffers of all of the affected source files
+ * and checks that none of the files has been modified since the inception
+ * of the snapshot on which the corresponding change is based; if any of the
+ * files has been modified, no edits are applied at all. Then, the edits are
+ * applied to the buffers, and finally the buffers are saved as determined
+ * by the {@link SourceFileChange#getSaveMode() save mode} of each change
+ * and released. If an edit cannot be applied, the edits that have already
+ * been applied are undone.
+ * </p>
+ * <p>
+ * Acquiring the buffers, checking the base snapshots and saving the buffers
+ * (i.e., the steps dominated by I/O) are performed by a bounded number
+ * of worker jobs, provided that the calling thread does not own a
+ * scheduling rule; otherwise, all of the steps are performed in the calling
+ * thread, since worker jobs could block on the rule, which the calling
+ * thread would not release until the work is done. Edits are always applied
+ * from the calling thread, and each buffer applies them in the appropriate
+ * thread, e.g. the UI thread for a buffer that is open in an editor.
+ * </p>
+ * <p>
+ * Only instances of <code>SourceFileChange</code> may be added to this change.
+ * </p>
+ *
+ * @since 1.8
+ */
+public class BatchSourceFileChange
+    extends CompositeChange
+{
+    private final int maxThreads;
+
+    /**
+     * Creates a new, initially empty batch change with the given name.
+     * The maximum number of worker threads is based on the number
+     * of available processors.
+     *
+     * @param name the change's name, mainly used to render the change
+     *  in the UI (not <code>null</code>)
+     */
+    public BatchSourceFileChange(String name)
+    {
+        this(name, Math.max(1, Math.min(4,
+            Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * Creates a new, initially empty batch change with the given name
+     * and the given maximum number of worker threads.
+     *
+     * @param name the change's name, mainly used to render the change
+     *  in the UI (not <code>null</code>)
+     * @param maxThreads the maximum number of worker threads (positive)
+     */
+    public BatchSourceFileChange(String name, int maxThreads)
+    {
+        super(name);
+        if (maxThreads < 1)
+            throw new IllegalArgumentException();
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Returns the maximum number of worker threads used by this change.
+     *
+     * @return the maximum number of worker threads
+     */
+    public int getMaxThreads()
+    {
+        return maxThreads;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the given change is not
+     *  a {@link SourceFileChange}
+     */
+    @Override
+    public void add(Change change)
+    {
+        if (!(change instanceof SourceFileChange))
+            throw new IllegalArgumentException();
+        super.add(change);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation validates the enabled children in parallel,
+     * provided that the calling thread does not own a scheduling rule.
+     * </p>
+     */
+    @Override
+    public RefactoringStatus isValid(IProgressMonitor pm) throws CoreException
+    {
+        List<SourceFileChange> changes = getEnabledChanges();
+        int n = changes.size();
+        RefactoringStatus[] statuses = new RefactoringStatus[n];
+        forEach(n, i -> statuses[i] = changes.get(i).isValid(null), pm);
+        RefactoringStatus result = new RefactoringStatus();
+        for (RefactoringStatus status : statuses)
+            result.merge(status);
+        return result;
+    }
+
+    @Override
+    public Change perform(IProgressMonitor pm) throws CoreException
+    {
+        List<SourceFileChange> changes = getEnabledChanges();
+        int n = changes.size();
+        SubMonitor subMonitor = SubMonitor.convert(pm, 3 * n);
+        Entry[] entries = new Entry[n];
+        try
+        {
+            forEach(n, i -> entries[i] = prepare(changes.get(i)),
+                subMonitor.split(n));
+
+            List<Change> undoChanges = apply(entries, subMonitor.split(n,
+                SubMonitor.SUPPRESS_ISCANCELED));
+
+            MultiStatus saveStatus = new MultiStatus(Activator.PLUGIN_ID, 0,
+                getName(), null);
+            forEach(n, i -> save(entries[i], saveStatus), subMonitor.split(n,
+                SubMonitor.SUPPRESS_ISCANCELED));
+            if (!saveStatus.isOK())
+                throw new CoreException(saveStatus);
+
+            return createUndoChange(undoChanges.toArray(new Change[n]));
+        }
+        finally
+        {
+            for (Entry entry : entries)
+            {
+                if (entry != null)
+                    entry.buffer.release();
+            }
+        }
+    }
+
+    private List<SourceFileChange> getEnabledChanges()
+    {
+        Change[] children = getChildren();
+        List<SourceFileChange> result = new ArrayList<>(children.length);
+        for (Change child : children)
+        {
+            if (!(child instanceof SourceFileChange))
+                throw new IllegalStateException();
+            if (child.isEnabled())
+                result.add((SourceFileChange)child);
+        }
+        return result;
+    }
+
+    private static Entry prepare(SourceFileChange change) throws CoreException
+    {
+        ISourceFile sourceFile = (ISourceFile)change.getModifiedElement();
+        IBuffer buffer = getBuffer(sourceFile, EMPTY_CONTEXT, null);
+        boolean success = false;
+        try
+        {
+            BufferChange bufferChange = change.createBufferChange();
+            ISnapshot base = bufferChange.getBase();
+            if (base != null && !base.isEqualTo(buffer.getSnapshot()))
+                throw newStaleChangeException(sourceFile, null);
+            Entry entry = new Entry(change, sourceFile, buffer, bufferChange);
+            success = true;
+            return entry;
+        }
+        finally
+        {
+            if (!success)
+                buffer.release();
+        }
+    }
+
+    /*
+     * Applies the edits in the calling thread; the buffers are saved later.
+     * Undoes the edits that have already been applied if an edit cannot be
+     * applied. Returns the undo changes in the reverse order of application.
+     */
+    private static List<Change> apply(Entry[] entries, SubMonitor monitor)
+        throws CoreException
+    {
+        monitor.setWorkRemaining(entries.length);
+        for (int i = 0; i < entries.length; i++)
+        {
+            Entry entry = entries[i];
+            SaveMode saveMode = entry.change.getSaveMode();
+            entry.needsSave = saveMode == SaveMode.FORCE_SAVE
+                || (saveMode == SaveMode.KEEP_SAVED_STATE
+                    && !entry.buffer.isDirty());
+            entry.bufferChange.setSaveMode(SaveMode.LEAVE_UNSAVED);
+            try
+            {
+                entry.undoChange = entry.buffer.applyChange(entry.bufferChange,
+                    monitor.split(1));
+            }
+            catch (CoreException | RuntimeException e)
+            {
+                rollback(entries, i);
+                if (e instanceof StaleSnapshotException)
+                    throw newStaleChangeException(entry.sourceFile, e);
+                throw e;
+            }
+        }
+        // the undo changes inherited the LEAVE_UNSAVED mode, which is what
+        // a rollback needs; the undo changes returned to the caller must
+        // however use the save mode of the original change
+        List<Change> undoChanges = new ArrayList<>(entries.length);
+        for (int i = entries.length - 1; i >= 0; i--)
+        {
+            Entry entry = entries[i];
+            if (entry.undoChange instanceof BufferChange)
+            {
+                ((BufferChange)entry.undoChange).setSaveMode(
+                    entry.change.getSaveMode());
+            }
+            undoChanges.add(new UndoSourceFileChange(entry.change.getName(),
+                entry.sourceFile, entry.undoChange));
+        }
+        return undoChanges;
+    }
+
+    private static void rollback(Entry[] entries, int count)
+    {
+        for (int i = count - 1; i >= 0; i--)
+        {
+            Entry entry = entries[i];
+            try
+            {
+                entry.buffer.applyChange(entry.undoChange, null);
+            }
+            catch (CoreException | RuntimeException e)
+            {
+                Activator.logError(e);
+            }
+            entry.needsSave = false;
+        }
+    }
+
+    private static void save(Entry entry, MultiStatus status)
+    {
+        if (!entry.needsSave)
+            return;
+        try
+        {
+            entry.buffer.save(EMPTY_CONTEXT, null);
+        }
+        catch (CoreException e)
+        {
+            synchronized (status)
+            {
+                status.add(e.getStatus());
+            }
+        }
+    }
+
+    private static CoreException newStaleChangeException(
+        ISourceFile sourceFile, Throwable cause)
+    {
+        return new CoreException(Activator.createErrorStatus(
+            MessageFormat.format(
+                Messages.SourceFileChange_Cannot_apply_stale_change__0,
+                toDisplayString(sourceFile, EMPTY_CONTEXT)), cause));
+    }
+
+    /*
+     * Runs the given task for each index from 0 to count - 1 using a bounded
+     * number of worker jobs, or in the calling thread if it owns a scheduling
+     * rule. Waits until all started tasks have completed, even if a task has
+     * failed or the operation has been canceled.
+     */
+    private void forEach(int count, IndexedTask task, IProgressMonitor monitor)
+        throws CoreException
+    {
+        SubMonitor subMonitor = SubMonitor.convert(monitor, count);
+        int threads = Math.min(maxThreads, count);
+        if (threads <= 1 || Job.getJobManager().currentRule() != null)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                subMonitor.split(1);
+                task.run(i);
+            }
+            return;
+        }
+        WorkerJob[] workers = new WorkerJob[threads];
+        WorkQueue queue = new WorkQueue(count, task);
+        for (int i = 0; i < threads; i++)
+        {
+            workers[i] = new WorkerJob(getName(), queue);
+            workers[i].schedule();
+        }
+        try
+        {
+            int worked = 0;
+            for (WorkerJob worker : workers)
+            {
+                while (!worker.join(100, subMonitor))
+                {
+                    int completed = queue.completed.get();
+                    subMonitor.worked(completed - worked);
+                    worked = completed;
+                    if (queue.failure != null)
+                        break; // no need to wait for more tasks to start
+                }
+            }
+            subMonitor.worked(queue.completed.get() - worked);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        }
+        finally
+        {
+            queue.stop();
+            for (WorkerJob worker : workers)
+            {
+                worker.cancel();
+                joinUninterruptibly(worker);
+            }
+        }
+        Throwable failure = queue.failure;
+        if (failure instanceof CoreException)
+            throw (CoreException)failure;
+        if (failure instanceof RuntimeException)
+            throw (RuntimeException)failure;
+        if (failure instanceof Error)
+            throw (Error)failure;
+        if (queue.completed.get() < count) // a worker job has been canceled
+            throw new OperationCanceledException();
+    }
+
+    private static void joinUninterruptibly(Job job)
+    {
+        boolean interrupted = false;
+        while (true)
+        {
+            try
+            {
+                job.join();
+                break;
+            }
+            catch (InterruptedException e)
+            {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private interface IndexedTask
+    {
+        void run(int index) throws CoreException;
+    }
+
+    private static class WorkQueue
+    {
+        final int count;
+        final IndexedTask task;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        volatile Throwable failure;
+
+        WorkQueue(int count, IndexedTask task)
+        {
+            this.count = count;
+            this.task = task;
+        }
+
+        /*
+         * Runs the queued tasks until the queue is exhausted or stopped,
+         * or the given monitor is canceled.
+         */
+        void drain(IProgressMonitor monitor)
+        {
+            int index;
+            while (!monitor.isCanceled() && (index =
+                next.getAndIncrement()) < count)
+            {
+                try
+                {
+                    task.run(index);
+                }
+                catch (CoreException | RuntimeException | Error e)
+                {
+                    synchronized (this)
+                    {
+                        if (failure == null)
+                            failure = e;
+                    }
+                    stop();
+                    return;
+                }
+                completed.incrementAndGet();
+            }
+        }
+
+        void stop()
+        {
+            next.set(count);
+        }
+    }
+
+    private static class WorkerJob
+        extends Job
+    {
+        private final WorkQueue queue;
+
+        WorkerJob(String name, WorkQueue queue)
+        {
+            super(name);
+            this.queue = queue;
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor)
+        {
+            queue.drain(monitor);
+            if (monitor.isCanceled())
+                return Status.CANCEL_STATUS;
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static class Entry
+    {
+        final SourceFileChange change;
+        final ISourceFile sourceFile;
+        final IBuffer buffer;
+        final BufferChange bufferChange;
+        IBufferChange undoChange;
+        boolean needsSave;
+
+        Entry(SourceFileChange change, ISourceFile sourceFile, IBuffer buffer,
+            BufferChange bufferChange)
+        {
+            this.change = change;
+            this.sourceFile = sourceFile;
+            this.buffer = buffer;
+            this.bufferChange = bufferChange;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -22,8 +22,10 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
@@ -50,8 +52,12 @@ import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.TextEditBasedChange;
 import org.eclipse.ltk.core.refactoring.TextEditBasedChangeGroup;
+import org.eclipse.text.edits.DeleteEdit;
+import org.eclipse.text.edits.InsertEdit;
 import org.eclipse.text.edits.MalformedTreeException;
 import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.RangeMarker;
+import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 import org.eclipse.text.edits.TextEditCopier;
 import org.eclipse.text.edits.TextEditGroup;
@@ -75,6 +81,7 @@ public class SourceFileChange
     private ISnapshot base;
     private SaveMode saveMode = SaveMode.KEEP_SAVED_STATE;
     private TextEditCopier copier;
+    private final Map<PreviewKey, PreviewEntry> previewCache = new HashMap<>();
 
     /**
      * Creates a source file change that initially contains only an empty root edit.
@@ -132,6 +139,7 @@ public class SourceFileChange
     public void addEdit(TextEdit edit)
     {
         insert(this.edit, edit);
+        clearPreviewCache();
     }
 
     /**
@@ -252,13 +260,7 @@ public class SourceFileChange
             IBuffer buffer = getBuffer(sourceFile, EMPTY_CONTEXT,
                 subMonitor.split(1)))
         {
-            BufferChangeWithExcludes change = new BufferChangeWithExcludes(
-                edit);
-            change.setExcludes(getDisabledEdits());
-            change.setBase(base);
-            change.setStyle(IBufferChange.CREATE_UNDO
-                | IBufferChange.UPDATE_REGIONS);
-            change.setSaveMode(saveMode);
+            BufferChange change = createBufferChange();
 
             IBufferChange undoChange;
 
@@ -313,11 +315,14 @@ public class SourceFileChange
             throw new IllegalArgumentException();
         if (expandRegionToFullLine && surroundingLines < 0)
             throw new IllegalArgumentException();
-        String content = getCurrentContent(pm);
-        if (content.length() < region.getOffset() + region.getLength())
-            throw new IllegalArgumentException();
-        return getDocumentContent(new Document(content), region,
-            expandRegionToFullLine, surroundingLines);
+        try (IBuffer buffer = getBuffer(sourceFile, EMPTY_CONTEXT, pm))
+        {
+            IDocument document = buffer.getDocument();
+            if (document.getLength() < region.getOffset() + region.getLength())
+                throw new IllegalArgumentException();
+            return getDocumentContent(document, region, expandRegionToFullLine,
+                surroundingLines);
+        }
     }
 
     @Override
@@ -326,6 +331,18 @@ public class SourceFileChange
         return getPreviewDocument(pm).get();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Unless preview edits are to be kept, this implementation does not create
+     * a preview of the whole document if the edits of the given change groups
+     * are just insert, delete, or replace edits. Instead, it applies the edits
+     * to a copy of the lines spanned by the requested region and the context
+     * lines around it. The result is cached until the contents of the source
+     * file changes or an edit is added to this change via one of the <code>
+     * add*</code> methods.
+     * </p>
+     */
     /*
      * Adapted from TextChange#getPreviewContent(..)
      */
@@ -355,6 +372,14 @@ public class SourceFileChange
             }
         }
 
+        if (!getKeepPreviewEdits())
+        {
+            String content = getPartialPreviewContent(changeGroups, region,
+                expandRegionToFullLine, surroundingLines, pm);
+            if (content != null)
+                return content;
+        }
+
         Preview preview = getPreview(changeGroups, pm);
 
         int delta;
@@ -377,6 +402,20 @@ public class SourceFileChange
             copier = null;
     }
 
+    @Override
+    public void addChangeGroup(TextEditBasedChangeGroup group)
+    {
+        super.addChangeGroup(group);
+        clearPreviewCache();
+    }
+
+    @Override
+    public void addTextEditGroup(TextEditGroup group)
+    {
+        super.addTextEditGroup(group);
+        clearPreviewCache();
+    }
+
     /**
      * Returns the edit that got executed during preview generation
      * instead of the given original edit. This method requires that
@@ -461,6 +500,22 @@ public class SourceFileChange
         return getPreview(ALL_EDITS, pm).document;
     }
 
+    /**
+     * Returns a buffer change that applies the enabled edits of this change.
+     *
+     * @return a new buffer change (never <code>null</code>)
+     */
+    BufferChange createBufferChange()
+    {
+        BufferChangeWithExcludes change = new BufferChangeWithExcludes(edit);
+        change.setExcludes(getDisabledEdits());
+        change.setBase(base);
+        change.setStyle(IBufferChange.CREATE_UNDO
+            | IBufferChange.UPDATE_REGIONS);
+        change.setSaveMode(saveMode);
+        return change;
+    }
+
     /*
      * Inserts the edit into the edit tree, trying not to break well-formedness of the tree.
      * Adapted from org.eclipse.jdt.internal.corext.refactoring.changes.TextChangeCompatibility.
@@ -579,6 +634,136 @@ public class SourceFileChange
         }
     }
 
+    /*
+     * Computes the preview content for the given change groups by applying
+     * their edits to a copy of just the lines of the current document that
+     * are spanned by the given region and the requested context lines.
+     * Returns null if the edits cannot be applied this way.
+     */
+    private String getPartialPreviewContent(
+        TextEditBasedChangeGroup[] groups, IRegion region,
+        boolean expandRegionToFullLine, int surroundingLines,
+        IProgressMonitor pm) throws CoreException
+    {
+        PreviewKey key = new PreviewKey(groups, region, expandRegionToFullLine,
+            surroundingLines);
+        try (IBuffer buffer = getBuffer(sourceFile, EMPTY_CONTEXT, pm))
+        {
+            ISnapshot snapshot = buffer.getSnapshot();
+            synchronized (previewCache)
+            {
+                PreviewEntry entry = previewCache.get(key);
+                if (entry != null && entry.snapshot.isEqualTo(snapshot))
+                    return entry.content;
+            }
+
+            List<TextEdit> edits = new ArrayList<>();
+            if (!collectContentEdits(edit, flatten(Edits.ENABLED.of(groups)),
+                edits))
+            {
+                return null;
+            }
+
+            IDocument document = buffer.getDocument();
+            int contextLines = expandRegionToFullLine ? Math.max(
+                surroundingLines, 0) : 0;
+            String content;
+            try
+            {
+                int regionEnd = region.getOffset() + region.getLength();
+                if (regionEnd > document.getLength())
+                    throw new BadLocationException();
+                int startLine = Math.max(document.getLineOfOffset(
+                    region.getOffset()) - contextLines, 0);
+                int endLine = document.getLineOfOffset(regionEnd)
+                    + contextLines;
+                int start = document.getLineOffset(startLine);
+                int end = endLine + 1 < document.getNumberOfLines()
+                    ? document.getLineOffset(endLine + 1)
+                    : document.getLength();
+                IDocument lines = new Document(document.get(start, end
+                    - start));
+                int delta = 0;
+                // apply in reverse order, like TextEditProcessor does
+                for (int i = edits.size() - 1; i >= 0; i--)
+                {
+                    TextEdit contentEdit = edits.get(i);
+                    String text = getText(contentEdit);
+                    lines.replace(contentEdit.getOffset() - start,
+                        contentEdit.getLength(), text);
+                    delta += text.length() - contentEdit.getLength();
+                }
+                content = getDocumentContent(lines, new Region(
+                    region.getOffset() - start, region.getLength() + delta),
+                    expandRegionToFullLine, surroundingLines);
+            }
+            catch (BadLocationException e)
+            {
+                throw new CoreException(Activator.createErrorStatus(
+                    e.getMessage(), e));
+            }
+
+            if (snapshot.isEqualTo(buffer.getSnapshot()))
+            {
+                synchronized (previewCache)
+                {
+                    previewCache.put(key, new PreviewEntry(snapshot, content));
+                }
+            }
+            return content;
+        }
+    }
+
+    private void clearPreviewCache()
+    {
+        synchronized (previewCache)
+        {
+            previewCache.clear();
+        }
+    }
+
+    /*
+     * Collects the insert, delete, and replace edits of the given tree
+     * that are included in the preview, in the order of the tree traversal.
+     * Returns false if an included edit is of any other kind (except for
+     * structural edits) or has children, since applying such an edit may
+     * require content outside the previewed lines.
+     */
+    private static boolean collectContentEdits(TextEdit edit,
+        Set<TextEdit> includes, List<TextEdit> result)
+    {
+        if (includes.contains(edit))
+        {
+            if (edit instanceof InsertEdit || edit instanceof DeleteEdit
+                || edit instanceof ReplaceEdit)
+            {
+                if (edit.hasChildren())
+                    return false;
+                result.add(edit);
+            }
+            else if (!(edit instanceof MultiTextEdit)
+                && !(edit instanceof RangeMarker))
+            {
+                return false;
+            }
+        }
+        for (TextEdit child : edit.getChildren())
+        {
+            if (!collectContentEdits(child, includes, result))
+                return false;
+        }
+        return true;
+    }
+
+    private static String getText(TextEdit contentEdit)
+    {
+        if (contentEdit instanceof InsertEdit)
+            return ((InsertEdit)contentEdit).getText();
+        if (contentEdit instanceof ReplaceEdit)
+            return ((ReplaceEdit)contentEdit).getText();
+        return ""; //$NON-NLS-1$
+    }
+
     private Collection<TextEdit> getDisabledEdits()
     {
         return Edits.DISABLED.of(getChangeGroups());
@@ -773,6 +958,69 @@ public class SourceFileChange
         }
     }
 
+    private static class PreviewKey
+    {
+        private final List<TextEditBasedChangeGroup> groups;
+        private final boolean[] enabled;
+        private final int offset, length;
+        private final boolean expandRegionToFullLine;
+        private final int surroundingLines;
+
+        PreviewKey(TextEditBasedChangeGroup[] groups, IRegion region,
+            boolean expandRegionToFullLine, int surroundingLines)
+        {
+            this.groups = Arrays.asList(groups.clone());
+            this.enabled = new boolean[groups.length];
+            for (int i = 0; i < groups.length; i++)
+                enabled[i] = groups[i].isEnabled();
+            this.offset = region.getOffset();
+            this.length = region.getLength();
+            this.expandRegionToFullLine = expandRegionToFullLine;
+            this.surroundingLines = surroundingLines;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + groups.hashCode();
+            result = prime * result + Arrays.hashCode(enabled);
+            result = prime * result + offset;
+            result = prime * result + length;
+            result = prime * result + (expandRegionToFullLine ? 1231 : 1237);
+            result = prime * result + surroundingLines;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            PreviewKey other = (PreviewKey)obj;
+            return offset == other.offset && length == other.length
+                && expandRegionToFullLine == other.expandRegionToFullLine
+                && surroundingLines == other.surroundingLines
+                && Arrays.equals(enabled, other.enabled) && groups.equals(
+                    other.groups);
+        }
+    }
+
+    private static class PreviewEntry
+    {
+        final ISnapshot snapshot;
+        final String content;
+
+        PreviewEntry(ISnapshot snapshot, String content)
+        {
+            this.snapshot = snapshot;
+            this.content = content;
+        }
+    }
+
     private static enum Edits
     {
         ENABLED,